@@ -5,7 +5,9 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.sgov.server.controller.dto.ValidationResultPage;
 import com.github.sgov.server.controller.util.ValidationReportSerializer;
+import com.github.sgov.server.controller.util.ValidationResultPageSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.topbraid.shacl.validation.ValidationReport;
@@ -28,6 +30,7 @@ public class JacksonConfig {
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         final SimpleModule module = new SimpleModule();
         module.addSerializer(ValidationReport.class, new ValidationReportSerializer());
+        module.addSerializer(ValidationResultPage.class, new ValidationResultPageSerializer());
         mapper.registerModule(module);
         return mapper;
     }
@@ -7,6 +7,8 @@ import org.keycloak.adapters.springsecurity.KeycloakConfiguration;
 import org.keycloak.adapters.springsecurity.authentication.KeycloakAuthenticationProvider;
 import org.keycloak.adapters.springsecurity.config.KeycloakWebSecurityConfigurerAdapter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -64,7 +66,10 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {
         http.authorizeRequests().antMatchers("/rest/query").permitAll()
             .and().cors()
             .and().csrf().disable()
-            .authorizeRequests().antMatchers("/**").permitAll();
+            // metrics reveal the load of the server, they are readable by signed-in users only
+            .authorizeRequests().requestMatchers(EndpointRequest.to(MetricsEndpoint.class))
+            .authenticated()
+            .antMatchers("/**").permitAll();
     }
 
     @Bean
@@ -80,6 +85,7 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {
         corsConfiguration.addExposedHeader(HttpHeaders.AUTHORIZATION);
         corsConfiguration.addExposedHeader(HttpHeaders.LOCATION);
         corsConfiguration.addExposedHeader(HttpHeaders.CONTENT_DISPOSITION);
+        corsConfiguration.addExposedHeader(HttpHeaders.LINK);
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
         return source;
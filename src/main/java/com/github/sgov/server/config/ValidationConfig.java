@@ -0,0 +1,41 @@
+package com.github.sgov.server.config;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationConfig {
+
+    /**
+     * Provides the executor shared by all validation requests. When the queue is full, the
+     * requesting thread validates the vocabulary itself instead of failing the request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor validationExecutor(ValidationConf validationConf) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(validationConf.getThreads());
+        executor.setMaxPoolSize(validationConf.getThreads());
+        executor.setQueueCapacity(validationConf.getQueueCapacity());
+        executor.setThreadNamePrefix("validation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Provides the executor running background validation jobs. Jobs submitted when the queue
+     * is full are rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor validationJobExecutor(ValidationConf validationConf) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(validationConf.getJobThreads());
+        executor.setMaxPoolSize(validationConf.getJobThreads());
+        executor.setQueueCapacity(validationConf.getJobQueueCapacity());
+        executor.setThreadNamePrefix("validation-job-");
+        return executor;
+    }
+}
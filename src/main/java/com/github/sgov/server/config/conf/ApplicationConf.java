@@ -18,4 +18,10 @@ public class ApplicationConf {
      * Application version.
      */
     private String version;
+
+    /**
+     * Maximal number of items on a page of a paged list endpoint, smaller limits are applied
+     * as requested.
+     */
+    private int maxPageSize = 1000;
 }
@@ -1,6 +1,7 @@
 package com.github.sgov.server.config.conf;
 
 import com.github.sgov.server.config.conf.components.ComponentsConf;
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.logging.log4j.util.Strings;
@@ -25,6 +26,32 @@ public class RepositoryConf {
      */
     private String url;
 
+    /**
+     * How long the catalog of published vocabularies is kept before it is loaded again.
+     */
+    private Duration vocabularyCatalogTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of HTTP connections to the workspace repository.
+     */
+    private int maxConnections = 20;
+
+    /**
+     * Timeout of opening an HTTP connection to the workspace repository, or of waiting for a
+     * free one in the pool.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Timeout of waiting for data from the workspace repository, 0 waits indefinitely.
+     */
+    private Duration readTimeout = Duration.ofMinutes(10);
+
+    /**
+     * How long an idle HTTP connection to the workspace repository is kept open.
+     */
+    private Duration keepAlive = Duration.ofMinutes(1);
+
     private String username;
 
     private String password;
@@ -0,0 +1,173 @@
+package com.github.sgov.server.config.conf;
+
+import com.github.sgov.server.validation.InferenceMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties("validation")
+@SuppressWarnings("checkstyle:MissingJavadocType")
+public class ValidationConf {
+
+    /**
+     * Number of threads shared by all validation requests.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of vocabularies waiting for a free validation thread.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Maximal number of vocabularies of a single request validated at the same time.
+     */
+    private int maxVocabulariesPerRequest = 4;
+
+    /**
+     * Number of vocabularies whose statements are fetched by a single query, 0 to fetch as many
+     * as are validated at the same time. Statements of a fetched batch are held in memory until
+     * their vocabularies are validated, so up to this number of vocabularies plus
+     * {@link #maxVocabulariesPerRequest} are held by a single request.
+     */
+    private int fetchBatchSize = 0;
+
+    /**
+     * Number of statements of a vocabulary above which they are validated from a temporary
+     * dataset on disk instead of memory, 0 to always validate in memory.
+     */
+    private long spillThreshold = 1_000_000;
+
+    /**
+     * Directory in which temporary datasets of large vocabularies are created.
+     */
+    private String spillDirectory = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Maximal time a single validation request may take.
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+
+    /**
+     * Maximal size in bytes of candidate statements validated without storing them.
+     */
+    private long maxCandidateBytes = 10 * 1024 * 1024;
+
+    /**
+     * Number of vocabulary validation reports kept to skip validation of unchanged vocabularies.
+     */
+    private int resultCacheSize = 1000;
+
+    /**
+     * Whether vocabulary validation reports are stored in the repository, so that they survive
+     * restarts and are shared by all server instances.
+     */
+    private boolean persistReports = true;
+
+    /**
+     * Whether shapes expressible as SPARQL queries are evaluated inside the repository, so that
+     * only the remaining shapes are validated in process on the fetched statements.
+     */
+    private boolean pushdown = true;
+
+    /**
+     * Whether vocabularies are validated together with the published vocabularies they import.
+     */
+    private boolean imports = true;
+
+    /**
+     * How long statements of an imported published vocabulary are kept.
+     */
+    private Duration importCacheTtl = Duration.ofHours(1);
+
+    /**
+     * Number of background validation jobs running at the same time.
+     */
+    private int jobThreads = 2;
+
+    /**
+     * Number of background validation jobs waiting for a free thread.
+     */
+    private int jobQueueCapacity = 20;
+
+    /**
+     * How long a finished background validation job is kept.
+     */
+    private Duration jobRetention = Duration.ofHours(1);
+
+    /**
+     * Profile used when the request does not select any.
+     */
+    private String defaultProfile = "model-light";
+
+    /**
+     * Named sets of rules selectable by the validation requests.
+     */
+    private Map<String, Profile> profiles = defaultProfiles();
+
+    private static Map<String, Profile> defaultProfiles() {
+        final Map<String, Profile> profiles = new LinkedHashMap<>();
+        profiles.put("glossary-only", new Profile()
+            .setGlossary(true)
+            .setInference(InferenceMode.NONE));
+        profiles.put("model-light", new Profile()
+            .setGlossary(true)
+            .setModel(true)
+            .setVocabulary(true)
+            .setExcludedRules(new ArrayList<>(
+                Arrays.asList("m2.ttl", "m3.ttl", "m4.ttl", "m5.ttl", "m6.ttl", "m7.ttl"))));
+        profiles.put("full", new Profile()
+            .setGlossary(true)
+            .setModel(true)
+            .setVocabulary(true));
+        return profiles;
+    }
+
+    /**
+     * Set of sgov-validator rules to evaluate.
+     */
+    @Setter
+    @Getter
+    @Accessors(chain = true)
+    public static class Profile {
+
+        /**
+         * Whether glossary rules are evaluated.
+         */
+        private boolean glossary;
+
+        /**
+         * Whether model rules are evaluated.
+         */
+        private boolean model;
+
+        /**
+         * Whether vocabulary rules are evaluated.
+         */
+        private boolean vocabulary;
+
+        /**
+         * File names of rules which are skipped, e.g. m2.ttl.
+         */
+        private List<String> excludedRules = new ArrayList<>();
+
+        /**
+         * Inference applied to the validated data, the cheapest mode sufficient for the rules of
+         * the profile unless the profile sets it.
+         */
+        private InferenceMode inference = InferenceMode.AUTO;
+    }
+}
@@ -1,20 +1,35 @@
 package com.github.sgov.server.controller;
 
+import com.github.sgov.server.controller.util.RestUtils;
+import com.github.sgov.server.controller.util.ValidationReportSerializer;
+import com.github.sgov.server.controller.util.ValidationResultQuery;
+import com.github.sgov.server.controller.util.ValidationResultStreamer;
 import com.github.sgov.server.service.WorkspaceService;
 import com.github.sgov.server.util.Constants;
+import com.github.sgov.server.validation.ValidationOptions;
+import io.micrometer.core.annotation.Timed;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.topbraid.shacl.validation.ValidationReport;
 
 @RestController
@@ -31,6 +46,14 @@ public class ValidationController {
      * Validates set of vocabularies specified by their context IRIs.
      *
      * @param vocabularyContextIris context IRIs of vocabularies to be validated.
+     * @param profile               name of the validation profile, e.g. glossary-only. Optional,
+     *                              if not specified, the configured default profile is used.
+     * @param changesOnly           if true, only entities changed within the workspace and
+     *                              recorded in the change tracking contexts are validated.
+     * @param failFast              if true, no further vocabularies are validated once a
+     *                              violation is found.
+     * @param query                 filters, paging and grouping of the results.
+     * @param locale                locale selecting the language of the messages.
      * @return set of validation results
      */
     @GetMapping(value = "/validate",
@@ -47,12 +70,99 @@ public class ValidationController {
         example = "cs"
     )
     @PreAuthorize("permitAll()")
+    @Timed(value = "sgov.validation.request", extraTags = {"scope", "vocabularies"})
     public ValidationReport validate(
         @RequestParam(name = Constants.QueryParams.VOCABULARY_CONTEXT_IRI)
-            List<String> vocabularyContextIris
+            List<String> vocabularyContextIris,
+        @RequestParam(name = Constants.QueryParams.PROFILE, required = false) String profile,
+        @RequestParam(name = Constants.QueryParams.CHANGES_ONLY, required = false,
+            defaultValue = "false") boolean changesOnly,
+        @RequestParam(name = Constants.QueryParams.FAIL_FAST, required = false,
+            defaultValue = "false") boolean failFast,
+        ValidationResultQuery query,
+        Locale locale
     ) {
         final Set<URI> vcIris = vocabularyContextIris.stream()
             .map(URI::create).collect(Collectors.toSet());
-        return workspaceService.validate(vcIris);
+        return query.apply(workspaceService.validate(vcIris, new ValidationOptions()
+            .setProfile(profile)
+            .setChangesOnly(changesOnly)
+            .setFailFast(failFast)), ValidationReportSerializer.getLang(locale));
+    }
+
+    /**
+     * Validates set of vocabularies specified by their context IRIs, streaming the results of
+     * each vocabulary as newline delimited JSON as soon as it is validated.
+     *
+     * @param vocabularyContextIris context IRIs of vocabularies to be validated.
+     * @param profile               name of the validation profile, e.g. glossary-only. Optional,
+     *                              if not specified, the configured default profile is used.
+     * @param changesOnly           if true, only entities changed within the workspace and
+     *                              recorded in the change tracking contexts are validated.
+     * @param failFast              if true, no further vocabularies are validated once a
+     *                              violation is found.
+     * @param locale                locale selecting the language of the messages.
+     * @return validation results, one line per vocabulary followed by a summary line
+     */
+    @GetMapping(value = "/validate", produces = RestUtils.MEDIA_TYPE_NDJSON)
+    @ApiOperation(value = "Validates set of vocabularies using predefined rules, streaming the "
+        + "results of each vocabulary as soon as it is validated.")
+    @PreAuthorize("permitAll()")
+    @Timed(value = "sgov.validation.request", extraTags = {"scope", "vocabularies"})
+    public StreamingResponseBody validateStreaming(
+        @RequestParam(name = Constants.QueryParams.VOCABULARY_CONTEXT_IRI)
+            List<String> vocabularyContextIris,
+        @RequestParam(name = Constants.QueryParams.PROFILE, required = false) String profile,
+        @RequestParam(name = Constants.QueryParams.CHANGES_ONLY, required = false,
+            defaultValue = "false") boolean changesOnly,
+        @RequestParam(name = Constants.QueryParams.FAIL_FAST, required = false,
+            defaultValue = "false") boolean failFast,
+        Locale locale
+    ) {
+        final Set<URI> vcIris = vocabularyContextIris.stream()
+            .map(URI::create).collect(Collectors.toSet());
+        final ValidationOptions options = new ValidationOptions()
+            .setProfile(profile)
+            .setChangesOnly(changesOnly)
+            .setFailFast(failFast);
+        return ValidationResultStreamer.stream(locale,
+            listener -> workspaceService.validate(vcIris, options, listener));
+    }
+
+    /**
+     * Validates candidate statements of a vocabulary context without storing them.
+     *
+     * @param data                 candidate statements in Turtle or JSON-LD.
+     * @param contentType          media type of the candidate statements.
+     * @param vocabularyContextIri context IRI of the vocabulary the statements belong to, used
+     *                             as the base IRI. Required if union is requested.
+     * @param union                if true, the statements are validated together with the stored
+     *                             statements of the vocabulary context.
+     * @param profile              name of the validation profile, e.g. glossary-only. Optional,
+     *                             if not specified, the configured default profile is used.
+     * @return set of validation results
+     */
+    @PostMapping(value = "/validate",
+        consumes = {RestUtils.MEDIA_TYPE_TURTLE, RestUtils.MEDIA_TYPE_JSONLD},
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Validates candidate statements of a vocabulary using predefined rules "
+        + "without storing them.")
+    @ResponseBody
+    @PreAuthorize("permitAll()")
+    @Timed(value = "sgov.validation.request", extraTags = {"scope", "candidate"})
+    public ValidationReport validateCandidate(
+        InputStream data,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestParam(name = Constants.QueryParams.VOCABULARY_CONTEXT_IRI, required = false)
+            String vocabularyContextIri,
+        @RequestParam(name = Constants.QueryParams.UNION, required = false,
+            defaultValue = "false") boolean union,
+        @RequestParam(name = Constants.QueryParams.PROFILE, required = false) String profile
+    ) {
+        final Lang lang = RDFLanguages.contentTypeToLang(
+            contentType.getType() + "/" + contentType.getSubtype());
+        return workspaceService.validateCandidate(data, lang,
+            vocabularyContextIri != null ? URI.create(vocabularyContextIri) : null, union,
+            new ValidationOptions().setProfile(profile));
     }
 }
@@ -0,0 +1,123 @@
+package com.github.sgov.server.controller;
+
+import com.github.sgov.server.controller.dto.ValidationJobDto;
+import com.github.sgov.server.controller.util.RestUtils;
+import com.github.sgov.server.service.ValidationJobService;
+import com.github.sgov.server.util.Constants.QueryParams;
+import com.github.sgov.server.util.Vocabulary;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationOptions;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiOperation;
+import java.net.URI;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.topbraid.shacl.validation.ValidationReport;
+
+@RestController
+@Api(tags = "Validation")
+@SuppressWarnings("checkstyle:MissingJavadocType")
+@Slf4j
+public class ValidationJobController extends BaseController {
+
+    private final ValidationJobService validationJobService;
+
+    @Autowired
+    public ValidationJobController(ValidationJobService validationJobService) {
+        this.validationJobService = validationJobService;
+    }
+
+    /**
+     * Starts validation of a workspace in the background.
+     *
+     * @param workspaceFragment local name of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param profile           Name of the validation profile. Optional, if not specified, the
+     *                          configured default profile is used.
+     * @param changesOnly       If true, only changed entities are validated.
+     * @param failFast          If true, the job stops once a violation is found.
+     * @return state of the submitted job, its location is returned in the Location header
+     */
+    @PostMapping(value = "/workspaces/{workspaceFragment}/validation-jobs",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Starts validation of a workspace in the background. The job can be "
+        + "polled, cancelled and its report retrieved once it finishes.")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<ValidationJobDto> submit(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @RequestParam(name = QueryParams.PROFILE, required = false) String profile,
+        @RequestParam(name = QueryParams.CHANGES_ONLY, required = false,
+            defaultValue = "false") boolean changesOnly,
+        @RequestParam(name = QueryParams.FAIL_FAST, required = false,
+            defaultValue = "false") boolean failFast
+    ) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationJob job = validationJobService.submit(identifier, new ValidationOptions()
+            .setProfile(profile)
+            .setChangesOnly(changesOnly)
+            .setFailFast(failFast));
+        return ResponseEntity.created(
+            RestUtils.createLocationFromCurrentContextWithPath("/validation-jobs/{id}",
+                job.getId())
+        ).body(new ValidationJobDto(job));
+    }
+
+    /**
+     * Returns the state and progress of a validation job.
+     *
+     * @param jobId identifier of the job
+     */
+    @GetMapping(value = "/validation-jobs/{jobId}",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Returns the state and progress of a validation job.")
+    @PreAuthorize("permitAll()")
+    public ValidationJobDto getJob(@PathVariable String jobId) {
+        return new ValidationJobDto(validationJobService.get(jobId));
+    }
+
+    /**
+     * Cancels a validation job.
+     *
+     * @param jobId identifier of the job
+     */
+    @DeleteMapping(value = "/validation-jobs/{jobId}",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Cancels a validation job. Finished jobs are left intact.")
+    @PreAuthorize("permitAll()")
+    public ValidationJobDto cancel(@PathVariable String jobId) {
+        return new ValidationJobDto(validationJobService.cancel(jobId));
+    }
+
+    /**
+     * Returns the report of a finished validation job.
+     *
+     * @param jobId identifier of the job
+     */
+    @GetMapping(value = "/validation-jobs/{jobId}/report",
+        produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Returns the report of a finished validation job.")
+    @ApiImplicitParam(name = "Accept-language",
+        value = "cs",
+        required = true,
+        paramType = "header",
+        dataTypeClass = String.class,
+        example = "cs"
+    )
+    @PreAuthorize("permitAll()")
+    public ValidationReport getReport(@PathVariable String jobId) {
+        return validationJobService.getReport(jobId);
+    }
+}
@@ -1,8 +1,11 @@
 package com.github.sgov.server.controller;
 
+import com.github.sgov.server.config.conf.ApplicationConf;
 import com.github.sgov.server.controller.dto.VocabularyDto;
 import com.github.sgov.server.controller.dto.VocabularyStatusDto;
 import com.github.sgov.server.controller.dto.VocabularyWithWorkspacesDto;
+import com.github.sgov.server.controller.util.PageQuery;
+import com.github.sgov.server.service.repository.VocabularyCatalog;
 import com.github.sgov.server.service.repository.VocabularyRepositoryService;
 import com.github.sgov.server.util.Constants;
 import cz.cvut.kbss.jsonld.JsonLd;
@@ -14,6 +17,7 @@ import java.util.Map;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -27,27 +31,64 @@ import org.springframework.web.bind.annotation.RestController;
 @SuppressWarnings("checkstyle:MissingJavadocType")
 public class VocabularyController extends BaseController {
 
+    private static final String URI_FIELD = "uri";
+
+    private static final String LABEL = "label";
+
+    private static final String BASED_ON_VERSION = "basedOnVersion";
+
+    private static final String TYPES = "types";
+
+    private static final String IN_WORKSPACES = "inWorkspaces";
+
+    private static final List<String> FIELDS =
+        List.of(URI_FIELD, LABEL, BASED_ON_VERSION, TYPES, IN_WORKSPACES);
+
     private final VocabularyRepositoryService vocabularyService;
 
+    private final ApplicationConf applicationConf;
+
     @Autowired
-    public VocabularyController(VocabularyRepositoryService vocabularyService) {
+    public VocabularyController(VocabularyRepositoryService vocabularyService,
+                                ApplicationConf applicationConf) {
         this.vocabularyService = vocabularyService;
+        this.applicationConf = applicationConf;
     }
 
     /**
-     * Retrieves all vocabularies.
+     * Retrieves all vocabularies, or a page of them with the selected fields.
      *
      * @param headers Request headers to fetch the Accept-language header
+     * @param query   Cursor, limit and fields of the vocabularies, whole vocabularies if not set
      * @return a list of vocabulary contexts
      */
     @GetMapping(produces = {
         MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     @ApiOperation(value = "Retrieve all vocabularies.")
-    public List<VocabularyWithWorkspacesDto> findAll(@RequestHeader
-                                           Map<String, String> headers) {
+    public ResponseEntity<List<VocabularyWithWorkspacesDto>> findAll(
+        @RequestHeader Map<String, String> headers, PageQuery query) {
         final String lang;
         lang = headers.getOrDefault("Accept-Language", "cs");
-        return vocabularyService.getVocabulariesWithWorkspacesAsDtos(lang);
+        if (query.isDefault()) {
+            return ResponseEntity.ok(vocabularyService.getVocabulariesWithWorkspacesAsDtos(lang));
+        }
+        query.verify(FIELDS, applicationConf.getMaxPageSize());
+        final ResponseEntity<List<VocabularyWithWorkspacesDto>> response = query.toResponse(
+            vocabularyService.getVocabulariesWithWorkspacesAsDtos(lang, query.getAfter(),
+                query.getFetchLimit(), query.isSelected(TYPES), query.isSelected(IN_WORKSPACES)),
+            v -> VocabularyCatalog.Entry.key(v.getLabel(), v.getUri()));
+        response.getBody().forEach(v -> {
+            if (!query.isSelected(URI_FIELD)) {
+                v.setUri(null);
+            }
+            if (!query.isSelected(LABEL)) {
+                v.setLabel(null);
+            }
+            if (!query.isSelected(BASED_ON_VERSION)) {
+                v.setBasedOnVersion(null);
+            }
+        });
+        return response;
     }
 
     /**
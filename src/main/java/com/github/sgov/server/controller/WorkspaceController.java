@@ -1,20 +1,32 @@
 package com.github.sgov.server.controller;
 
+import com.github.sgov.server.config.conf.ApplicationConf;
 import com.github.sgov.server.controller.dto.VocabularyContextDto;
+import com.github.sgov.server.controller.dto.WorkspaceDto;
+import com.github.sgov.server.controller.util.PageQuery;
+import com.github.sgov.server.controller.util.RestUtils;
+import com.github.sgov.server.controller.util.ValidationReportSerializer;
+import com.github.sgov.server.controller.util.ValidationResultQuery;
+import com.github.sgov.server.controller.util.ValidationResultStreamer;
+import com.github.sgov.server.exception.ValidationException;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
 import com.github.sgov.server.service.WorkspacePublicationService;
 import com.github.sgov.server.service.WorkspaceService;
 import com.github.sgov.server.util.Constants.QueryParams;
 import com.github.sgov.server.util.Vocabulary;
+import com.github.sgov.server.validation.ValidationOptions;
 import cz.cvut.kbss.jsonld.JsonLd;
+import io.micrometer.core.annotation.Timed;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -33,6 +45,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.topbraid.shacl.validation.ValidationReport;
 
 @RestController
@@ -42,22 +55,73 @@ import org.topbraid.shacl.validation.ValidationReport;
 @Slf4j
 public class WorkspaceController extends BaseController {
 
+    private static final String URI_FIELD = "uri";
+
+    private static final String LABEL = "label";
+
+    private static final List<String> FIELDS = List.of(URI_FIELD, LABEL);
+
     private final WorkspaceService workspaceService;
 
     private final WorkspacePublicationService workspacePublicationService;
 
+    private final ApplicationConf applicationConf;
+
+    /**
+     * Constructor.
+     */
     @Autowired
     public WorkspaceController(WorkspaceService workspaceService,
-                               WorkspacePublicationService workspacePublicationService) {
+                               WorkspacePublicationService workspacePublicationService,
+                               ApplicationConf applicationConf) {
         this.workspaceService = workspaceService;
         this.workspacePublicationService = workspacePublicationService;
+        this.applicationConf = applicationConf;
     }
 
+    /**
+     * Retrieves all workspaces, or a page of them sorted by their IRIs. If fields are selected,
+     * only IRIs and labels of the workspaces are loaded.
+     *
+     * @param query Cursor, limit and fields (uri, label) of the workspaces, whole workspaces if
+     *              not set
+     * @return list of workspaces
+     */
     @GetMapping(produces = {
         MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     @ApiOperation(value = "Retrieve all workspaces.")
-    public List<Workspace> getAllWorkspaces() {
-        return workspaceService.findAllInferred();
+    public ResponseEntity<?> getAllWorkspaces(PageQuery query) {
+        if (query.isDefault()) {
+            return ResponseEntity.ok(workspaceService.findAllInferred());
+        }
+        query.verify(FIELDS, applicationConf.getMaxPageSize());
+        final URI after = getAfter(query);
+        if (query.getFields().isEmpty()) {
+            return query.toResponse(
+                workspaceService.findAllInferred(after, query.getFetchLimit()),
+                w -> w.getUri().toString());
+        }
+        final ResponseEntity<List<WorkspaceDto>> response = query.toResponse(
+            workspaceService.findAllAsDtos(after, query.getFetchLimit()),
+            w -> w.getUri().toString());
+        response.getBody().forEach(w -> {
+            if (!query.isSelected(URI_FIELD)) {
+                w.setUri(null);
+            }
+            if (!query.isSelected(LABEL)) {
+                w.setLabel(null);
+            }
+        });
+        return response;
+    }
+
+    private static URI getAfter(PageQuery query) {
+        final String after = query.getAfter();
+        try {
+            return after == null ? null : URI.create(after);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor " + query.getCursor() + ".");
+        }
     }
 
     /**
@@ -313,6 +377,16 @@ public class WorkspaceController extends BaseController {
      * @param workspaceFragment local name of workspace id.
      * @param namespace         Namespace used for resource identifier resolution. Optional, if not
      *                          specified, the configured namespace is used.
+     * @param profile           Name of the validation profile, e.g. glossary-only. Optional, if
+     *                          not specified, the configured default profile is used.
+     * @param changesOnly       If true, only entities changed within the workspace and recorded
+     *                          in the change tracking contexts are validated.
+     * @param failFast          If true, no further vocabularies are validated once a violation
+     *                          is found.
+     * @param vocabularyIris    IRIs of the vocabularies, or their contexts, to be validated.
+     *                          Optional, if not specified, all vocabularies are validated.
+     * @param query             Filters, paging and grouping of the results.
+     * @param locale            Locale selecting the language of the messages.
      * @return set of validation results
      */
     @GetMapping(value = "/{workspaceFragment}/validate",
@@ -329,6 +403,7 @@ public class WorkspaceController extends BaseController {
         example = "cs"
     )
     @PreAuthorize("permitAll()")
+    @Timed(value = "sgov.validation.request", extraTags = {"scope", "workspace"})
     public ValidationReport validate(
         @ApiParam(value = "instance-1775747014",
             required = true,
@@ -339,11 +414,67 @@ public class WorkspaceController extends BaseController {
             value = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/",
             example = "https://slovník.gov.cz/datový/pracovní-prostor/pojem/metadatový-kontext/"
         )
-        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @ApiParam(value = "Name of the validation profile selecting the rules to evaluate, "
+            + "the configured default profile if not specified.", example = "glossary-only")
+        @RequestParam(name = QueryParams.PROFILE, required = false) String profile,
+        @RequestParam(name = QueryParams.CHANGES_ONLY, required = false,
+            defaultValue = "false") boolean changesOnly,
+        @RequestParam(name = QueryParams.FAIL_FAST, required = false,
+            defaultValue = "false") boolean failFast,
+        @RequestParam(name = QueryParams.VOCABULARY_IRI, required = false)
+            List<String> vocabularyIris,
+        ValidationResultQuery query,
+        Locale locale
+    ) {
+        final URI identifier = resolveIdentifier(
+            namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
+        final ValidationOptions options = new ValidationOptions()
+            .setProfile(profile)
+            .setChangesOnly(changesOnly)
+            .setFailFast(failFast);
+        if (vocabularyIris != null) {
+            options.setVocabularies(vocabularyIris.stream()
+                .map(URI::create).collect(Collectors.toSet()));
+        }
+        return query.apply(workspaceService.validate(identifier, options),
+            ValidationReportSerializer.getLang(locale));
+    }
+
+    /**
+     * Validates a workspace, streaming the results of each vocabulary as newline delimited JSON
+     * as soon as it is validated.
+     *
+     * @param workspaceFragment local name of workspace id.
+     * @param namespace         Namespace used for resource identifier resolution. Optional, if not
+     *                          specified, the configured namespace is used.
+     * @param profile           Name of the validation profile, e.g. glossary-only. Optional, if
+     *                          not specified, the configured default profile is used.
+     * @param changesOnly       If true, only entities changed within the workspace and recorded
+     *                          in the change tracking contexts are validated.
+     * @param locale            Locale selecting the language of the messages.
+     * @return validation results, one line per vocabulary followed by a summary line
+     */
+    @GetMapping(value = "/{workspaceFragment}/validate", produces = RestUtils.MEDIA_TYPE_NDJSON)
+    @ApiOperation(value = "Validates workspace using predefined rules, streaming the results of "
+        + "each vocabulary as soon as it is validated.")
+    @PreAuthorize("permitAll()")
+    @Timed(value = "sgov.validation.request", extraTags = {"scope", "workspace"})
+    public StreamingResponseBody validateStreaming(
+        @PathVariable String workspaceFragment,
+        @RequestParam(name = QueryParams.NAMESPACE, required = false) String namespace,
+        @RequestParam(name = QueryParams.PROFILE, required = false) String profile,
+        @RequestParam(name = QueryParams.CHANGES_ONLY, required = false,
+            defaultValue = "false") boolean changesOnly,
+        Locale locale
     ) {
         final URI identifier = resolveIdentifier(
             namespace, workspaceFragment, Vocabulary.s_c_metadatovy_kontext);
-        return workspaceService.validate(identifier);
+        final ValidationOptions options = new ValidationOptions()
+            .setProfile(profile)
+            .setChangesOnly(changesOnly);
+        return ValidationResultStreamer.stream(locale,
+            listener -> workspaceService.validate(identifier, options, listener));
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.github.sgov.server.controller.dto;
+
+import com.github.sgov.server.validation.ValidationJob;
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Data;
+
+/**
+ * State of a background validation job as sent to the client polling for its progress. The report
+ * itself is not included, it is retrieved separately once the job has finished.
+ */
+@Data
+public class ValidationJobDto {
+    private String id;
+    private URI workspace;
+    private ValidationJob.Status status;
+    private String profile;
+    private boolean changesOnly;
+    private boolean failFast;
+    private int totalVocabularies;
+    private int validatedVocabularies;
+    private Set<URI> validatedVocabularyContexts;
+    private Boolean conforms;
+    private String error;
+    private Date created;
+    private Date finished;
+
+    /**
+     * Creates a snapshot of the current state of the given job.
+     */
+    public ValidationJobDto(ValidationJob job) {
+        this.id = job.getId();
+        this.workspace = job.getWorkspace();
+        this.status = job.getStatus();
+        this.profile = job.getOptions().getProfile();
+        this.changesOnly = job.getOptions().isChangesOnly();
+        this.failFast = job.getOptions().isFailFast();
+        this.totalVocabularies = job.getVocabularyContexts().size();
+        this.validatedVocabularyContexts = new HashSet<>(job.getValidatedVocabularyContexts());
+        this.validatedVocabularies = validatedVocabularyContexts.size();
+        this.conforms = job.getReport() != null ? job.getReport().conforms() : null;
+        this.error = job.getError();
+        this.created = job.getCreated();
+        this.finished = job.getFinished();
+    }
+}
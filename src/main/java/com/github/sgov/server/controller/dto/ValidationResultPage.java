@@ -0,0 +1,63 @@
+package com.github.sgov.server.controller.dto;
+
+import java.util.List;
+import java.util.Map;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * A page of the results of a validation report matching a query. Conformance refers to the whole
+ * report, regardless of the filters.
+ */
+public class ValidationResultPage implements ValidationReport {
+
+    private final boolean conforms;
+
+    private final int resultCount;
+
+    private final List<ValidationResult> results;
+
+    private final String nextCursor;
+
+    private final Map<String, Long> groups;
+
+    /**
+     * Constructor.
+     *
+     * @param conforms    whether the whole report conforms
+     * @param resultCount number of results matching the filters
+     * @param results     matching results on this page
+     * @param nextCursor  cursor of the next page, null for the last page
+     * @param groups      numbers of matching results per group, null if not grouped
+     */
+    public ValidationResultPage(boolean conforms, int resultCount, List<ValidationResult> results,
+                                String nextCursor, Map<String, Long> groups) {
+        this.conforms = conforms;
+        this.resultCount = resultCount;
+        this.results = results;
+        this.nextCursor = nextCursor;
+        this.groups = groups;
+    }
+
+    @Override
+    public boolean conforms() {
+        return conforms;
+    }
+
+    @Override
+    public List<ValidationResult> results() {
+        return results;
+    }
+
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Map<String, Long> getGroups() {
+        return groups;
+    }
+}
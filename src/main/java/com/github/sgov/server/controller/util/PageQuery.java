@@ -0,0 +1,121 @@
+package com.github.sgov.server.controller.util;
+
+import com.github.sgov.server.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Cursor pagination and field selection of a list endpoint, bound from its query parameters.
+ *
+ * <p>Items are listed in the order of their keys and the cursor is the opaque key of the last
+ * item of the previous page, so that services can fetch just the items following it. The link
+ * to the next page is returned in the {@code Link} header, the body stays a plain list.
+ */
+@Data
+@Accessors(chain = true)
+public class PageQuery {
+
+    /**
+     * Cursor of the requested page, the first page if null.
+     */
+    private String cursor;
+
+    /**
+     * Maximum number of items on a page, at most the maximal page size passed to
+     * {@link #verify(Collection, int)}, which is also used if no limit is given.
+     */
+    private Integer limit;
+
+    /**
+     * Fields of the items to return, all fields if empty.
+     */
+    private Set<String> fields = Collections.emptySet();
+
+    /**
+     * Tells whether the whole list with all fields is requested, i.e. no parameter is set.
+     */
+    public boolean isDefault() {
+        return cursor == null && limit == null && fields.isEmpty();
+    }
+
+    /**
+     * Verifies the limit and that only the given fields are selected, and reduces the limit to
+     * the maximal page size, so that a single request never fetches more items.
+     *
+     * @param supportedFields fields which can be selected
+     * @param maxPageSize     maximal number of items on a page
+     */
+    public void verify(Collection<String> supportedFields, int maxPageSize) {
+        if (limit != null && limit <= 0) {
+            throw new ValidationException("Limit must be positive.");
+        }
+        if (!supportedFields.containsAll(fields)) {
+            throw new ValidationException("Only fields " + String.join(", ", supportedFields)
+                + " can be selected.");
+        }
+        if (limit == null || limit > maxPageSize) {
+            limit = maxPageSize;
+        }
+    }
+
+    /**
+     * Tells whether the field is to be returned.
+     */
+    public boolean isSelected(String field) {
+        return fields.isEmpty() || fields.contains(field);
+    }
+
+    /**
+     * Returns the key of the last item of the previous page, null for the first page.
+     */
+    public String getAfter() {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor " + cursor + ".");
+        }
+    }
+
+    /**
+     * Returns the number of items to fetch, one more than the limit to find out whether there
+     * is a next page, or null for all items if the query was not verified.
+     */
+    public Integer getFetchLimit() {
+        return limit == null ? null : limit + 1;
+    }
+
+    /**
+     * Creates the response with the requested page.
+     *
+     * @param fetched items fetched with {@link #getAfter()} and {@link #getFetchLimit()}
+     * @param key     key of an item, in the order of which the items are fetched
+     * @param <T>     type of the items
+     * @return response with the page, linking the next page if there is one
+     */
+    public <T> ResponseEntity<List<T>> toResponse(List<T> fetched, Function<T, String> key) {
+        if (limit == null || fetched.size() <= limit) {
+            return ResponseEntity.ok(fetched);
+        }
+        final List<T> page = fetched.subList(0, limit);
+        final String next = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            key.apply(page.get(limit - 1)).getBytes(StandardCharsets.UTF_8));
+        final String link = ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("cursor", next).build().toUriString();
+        return ResponseEntity.ok()
+            .header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"")
+            .body(page);
+    }
+}
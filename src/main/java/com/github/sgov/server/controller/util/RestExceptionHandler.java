@@ -2,8 +2,11 @@ package com.github.sgov.server.controller.util;
 
 import com.github.sgov.server.controller.dto.ErrorInfo;
 import com.github.sgov.server.exception.AuthorizationException;
+import com.github.sgov.server.exception.CapacityExceededException;
 import com.github.sgov.server.exception.FeatureDisabledException;
+import com.github.sgov.server.exception.MalformedDataException;
 import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.PayloadTooLargeException;
 import com.github.sgov.server.exception.PersistenceException;
 import com.github.sgov.server.exception.PublicationException;
 import com.github.sgov.server.exception.SGoVException;
@@ -107,6 +110,26 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Malformed Data Exception.
+     */
+    @ExceptionHandler(MalformedDataException.class)
+    public ResponseEntity<ErrorInfo> malformedDataException(HttpServletRequest request,
+                                                            MalformedDataException e) {
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Payload Too Large Exception.
+     */
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ErrorInfo> payloadTooLargeException(HttpServletRequest request,
+                                                              PayloadTooLargeException e) {
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     /**
      * SGoVException.
      */
@@ -170,4 +193,14 @@ public class RestExceptionHandler {
         VocabularyRegisteredinReadWriteException e) {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.CONFLICT);
     }
+
+    /**
+     * Capacity Exceeded Exception.
+     */
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ErrorInfo> capacityExceededException(HttpServletRequest request,
+                                                               CapacityExceededException e) {
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
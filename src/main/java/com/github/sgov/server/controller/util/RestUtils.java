@@ -11,6 +11,10 @@ public final class RestUtils {
 
     public static final String MEDIA_TYPE_JSONLD = "application/ld+json";
 
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    public static final String MEDIA_TYPE_TURTLE = "text/turtle";
+
     private RestUtils() {
         throw new AssertionError();
     }
@@ -55,4 +59,19 @@ public final class RestUtils {
         return ServletUriComponentsBuilder.fromCurrentRequestUri().queryParam(param, paramValue)
             .path(path).buildAndExpand(pathValues).toUri();
     }
+
+    /**
+     * Creates location URI with the specified path appended to the context path of the current
+     * request.
+     *
+     * @param path              Path to add to the current context path, may contain variables
+     * @param uriVariableValues Values used to replace possible variables in the path
+     * @return location {@code URI}
+     */
+    public static URI createLocationFromCurrentContextWithPath(String path,
+                                                               Object... uriVariableValues) {
+        Objects.requireNonNull(path);
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(path).buildAndExpand(
+            uriVariableValues).toUri();
+    }
 }
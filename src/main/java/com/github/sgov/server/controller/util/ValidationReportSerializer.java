@@ -3,50 +3,110 @@ package com.github.sgov.server.controller.util;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.sgov.server.util.Constants;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Locale;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
 
 /**
  * Serializes the SHACL validation report to JSON.
+ *
+ * <p>Only messages in the language of the current request are written. The language is resolved
+ * once per report, as reports may contain tens of thousands of results. Results grouped or
+ * streamed outside of the serializer use the same language, see {@link #getLang(Locale)}.
  */
 public class ValidationReportSerializer extends JsonSerializer<ValidationReport> {
 
     public ValidationReportSerializer() {
     }
 
-    private String getLang() {
-        return ((ServletRequestAttributes) RequestContextHolder
-            .getRequestAttributes()).getRequest().getLocale().toLanguageTag();
+    /**
+     * Returns the language tag of the messages for the locale of a request, the default
+     * serialization language if the locale does not specify any language.
+     *
+     * @param locale locale of the request, may be null
+     * @return language tag of the messages
+     */
+    public static String getLang(Locale locale) {
+        if (locale == null || locale.getLanguage().isEmpty()) {
+            return Constants.SERIALIZATION_LANGUAGE;
+        }
+        return locale.toLanguageTag();
+    }
+
+    /**
+     * Returns the language tag of the messages for the current request, see
+     * {@link #getLang(Locale)}.
+     */
+    static String getLang() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return Constants.SERIALIZATION_LANGUAGE;
+        }
+        return getLang(LocaleContextHolder.getLocale());
     }
 
     @Override
     public void serialize(ValidationReport value, JsonGenerator gen,
                           SerializerProvider serializers) throws IOException {
+        final String lang = getLang();
         gen.writeStartObject();
         gen.writeBooleanField("conforms", value.conforms());
         gen.writeFieldName("results");
         gen.writeStartArray();
-        value.results().forEach(r -> {
-            try {
-                final StringBuilder sb = new StringBuilder();
-                r.getMessages().forEach(n -> {
-                    if (getLang().startsWith(n.asLiteral().getLanguage())) {
-                        sb.append(n);
-                    }
-                });
-                gen.writeStartObject();
-                gen.writeStringField("severity", r.getSeverity().getURI());
-                gen.writeStringField("message", sb.toString());
-                gen.writeStringField("focusNode", r.getFocusNode().toString());
-                gen.writeEndObject();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        for (final ValidationResult r : value.results()) {
+            writeResult(gen, r, lang);
+        }
         gen.writeEndArray();
         gen.writeEndObject();
     }
-}
 
+    /**
+     * Writes a single validation result as a JSON object.
+     *
+     * @param gen    generator to write to
+     * @param result validation result
+     * @param lang   language tag of the messages to include
+     */
+    static void writeResult(JsonGenerator gen, ValidationResult result, String lang)
+        throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("severity", result.getSeverity().getURI());
+        gen.writeStringField("message", getMessage(result.getMessages(), lang));
+        gen.writeStringField("focusNode", result.getFocusNode().toString());
+        gen.writeEndObject();
+    }
+
+    /**
+     * Concatenates the messages in the given language. Results usually have a single message per
+     * language, which is returned without copying it into a buffer.
+     */
+    static String getMessage(Collection<RDFNode> messages, String lang) {
+        String first = null;
+        StringBuilder sb = null;
+        for (final RDFNode n : messages) {
+            if (!lang.startsWith(n.asLiteral().getLanguage())) {
+                continue;
+            }
+            if (first == null) {
+                first = n.toString();
+            } else {
+                if (sb == null) {
+                    sb = new StringBuilder(first);
+                }
+                sb.append(n);
+            }
+        }
+        if (sb != null) {
+            return sb.toString();
+        }
+        return first != null ? first : "";
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.sgov.server.controller.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.sgov.server.controller.dto.ValidationResultPage;
+import java.io.IOException;
+import java.util.Map;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Serializes a page of validation results to JSON. The page is written like a validation report,
+ * see {@link ValidationReportSerializer}, extended with the number of matching results, the
+ * cursor of the next page and the group counts.
+ */
+public class ValidationResultPageSerializer extends JsonSerializer<ValidationResultPage> {
+
+    @Override
+    public void serialize(ValidationResultPage value, JsonGenerator gen,
+                          SerializerProvider serializers) throws IOException {
+        final String lang = ValidationReportSerializer.getLang();
+        gen.writeStartObject();
+        gen.writeBooleanField("conforms", value.conforms());
+        gen.writeNumberField("resultCount", value.getResultCount());
+        if (value.getNextCursor() != null) {
+            gen.writeStringField("nextCursor", value.getNextCursor());
+        }
+        if (value.getGroups() != null) {
+            gen.writeFieldName("groups");
+            gen.writeStartArray();
+            for (final Map.Entry<String, Long> group : value.getGroups().entrySet()) {
+                gen.writeStartObject();
+                gen.writeStringField("key", group.getKey());
+                gen.writeNumberField("count", group.getValue());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeFieldName("results");
+        gen.writeStartArray();
+        for (final ValidationResult r : value.results()) {
+            ValidationReportSerializer.writeResult(gen, r, lang);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
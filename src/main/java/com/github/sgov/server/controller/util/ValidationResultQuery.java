@@ -0,0 +1,170 @@
+package com.github.sgov.server.controller.util;
+
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import com.github.sgov.server.controller.dto.ValidationResultPage;
+import com.github.sgov.server.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.apache.jena.rdf.model.RDFNode;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Filters, pages and groups results of a validation report, bound from the query parameters of
+ * the validate endpoints.
+ *
+ * <p>Paged results are sorted by severity, focus node, shape, path and value, so that the order
+ * is stable across requests for the same report. The cursor is opaque to clients.
+ */
+@Data
+@Accessors(chain = true)
+public class ValidationResultQuery {
+
+    public static final String GROUP_BY_FOCUS_NODE = "focusNode";
+
+    public static final String GROUP_BY_MESSAGE = "message";
+
+    private static final Comparator<ValidationResult> ORDER =
+        new ValidationResultSeverityComparator()
+            .thenComparing(r -> r.getFocusNode().toString())
+            .thenComparing(r -> String.valueOf(r.getSourceShape()))
+            .thenComparing(r -> String.valueOf(r.getPath()))
+            .thenComparing(r -> String.valueOf(r.getValue()));
+
+    /**
+     * Severities of the results, either local names (e.g. Violation) or IRIs. All if empty.
+     */
+    private Set<String> severity = Collections.emptySet();
+
+    /**
+     * Prefix of the focus node IRIs of the results.
+     */
+    private String focusNodePrefix;
+
+    /**
+     * IRIs of the source shapes of the results. All if empty.
+     */
+    private Set<String> shape = Collections.emptySet();
+
+    /**
+     * Groups the matching results by {@value #GROUP_BY_FOCUS_NODE} or
+     * {@value #GROUP_BY_MESSAGE} and counts them.
+     */
+    private String groupBy;
+
+    /**
+     * Cursor of the requested page, the first page if null.
+     */
+    private String cursor;
+
+    /**
+     * Maximum number of results on a page, at least 1, all results if null.
+     */
+    private Integer limit;
+
+    /**
+     * Applies the query to the report.
+     *
+     * @param report validation report
+     * @param lang   language tag of the messages used for grouping by message, see
+     *               {@link ValidationReportSerializer#getLang(java.util.Locale)}
+     * @return page of the matching results
+     */
+    public ValidationResultPage apply(ValidationReport report, String lang) {
+        if (limit != null && limit < 1) {
+            throw new ValidationException("Limit must be at least 1.");
+        }
+        final Function<ValidationResult, String> groupKey = getGroupKey(lang);
+        final List<ValidationResult> matching = report.results().stream()
+            .filter(this::matches)
+            .collect(Collectors.toCollection(ArrayList::new));
+        final int offset = decodeCursor();
+        if (offset > 0 || limit != null) {
+            matching.sort(ORDER);
+        }
+        final int start = Math.min(offset, matching.size());
+        final int end = limit == null ? matching.size() : Math.min(matching.size(), start + limit);
+        final Map<String, Long> groups = groupKey == null ? null : group(matching, groupKey);
+        return new ValidationResultPage(report.conforms(), matching.size(),
+            matching.subList(start, end), end < matching.size() ? encodeCursor(end) : null,
+            groups);
+    }
+
+    /**
+     * Counts results per group, largest groups first.
+     */
+    private static Map<String, Long> group(List<ValidationResult> results,
+                                           Function<ValidationResult, String> groupKey) {
+        final Map<String, Long> groups = new LinkedHashMap<>();
+        results.stream()
+            .collect(Collectors.groupingBy(groupKey, Collectors.counting()))
+            .entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()))
+            .forEachOrdered(e -> groups.put(e.getKey(), e.getValue()));
+        return groups;
+    }
+
+    private boolean matches(ValidationResult result) {
+        if (!severity.isEmpty() && severity.stream().noneMatch(s ->
+            s.equalsIgnoreCase(result.getSeverity().getLocalName())
+                || s.equals(result.getSeverity().getURI()))) {
+            return false;
+        }
+        if (focusNodePrefix != null && !(result.getFocusNode().isURIResource()
+            && result.getFocusNode().asResource().getURI().startsWith(focusNodePrefix))) {
+            return false;
+        }
+        final RDFNode sourceShape = result.getSourceShape();
+        return shape.isEmpty()
+            || sourceShape != null && sourceShape.isURIResource()
+            && shape.contains(sourceShape.asResource().getURI());
+    }
+
+    private Function<ValidationResult, String> getGroupKey(String lang) {
+        if (groupBy == null) {
+            return null;
+        }
+        switch (groupBy) {
+            case GROUP_BY_FOCUS_NODE:
+                return r -> r.getFocusNode().toString();
+            case GROUP_BY_MESSAGE:
+                return r -> ValidationReportSerializer.getMessage(r.getMessages(), lang);
+            default:
+                throw new ValidationException("Results cannot be grouped by " + groupBy
+                    + ", use " + GROUP_BY_FOCUS_NODE + " or " + GROUP_BY_MESSAGE + ".");
+        }
+    }
+
+    private int decodeCursor() {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            final int offset = Integer.parseInt(
+                new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new NumberFormatException();
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor " + cursor + ".");
+        }
+    }
+
+    private static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.sgov.server.controller.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.validation.ValidationListener;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Resource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * Writes validation results as newline delimited JSON while the validation runs.
+ *
+ * <p>Each line is a JSON object with a {@code type} field. A {@code vocabulary} line carries the
+ * results of one vocabulary context as soon as it is validated, the final {@code summary} line
+ * carries the overall {@code conforms} flag and the numbers of results by severity. The summary
+ * is counted from the vocabulary lines, so the results are not kept once they are written. If
+ * the validation fails after the response has been committed, an {@code error} line is written
+ * instead of the summary.
+ */
+@Slf4j
+public class ValidationResultStreamer implements ValidationListener {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator gen;
+
+    private final String lang;
+
+    private boolean conforms = true;
+
+    private final Map<Resource, Long> resultCounts = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param out  stream to write to, it is not closed by the streamer
+     * @param lang language tag of the messages to include
+     */
+    public ValidationResultStreamer(OutputStream out, String lang) throws IOException {
+        this.gen = JSON_FACTORY.createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.lang = lang;
+        resultCounts.put(SH.Violation, 0L);
+        resultCounts.put(SH.Warning, 0L);
+        resultCounts.put(SH.Info, 0L);
+    }
+
+    /**
+     * Creates a response body streaming the results of the given validation.
+     *
+     * @param locale     locale of the request, selects the language of the messages
+     * @param validation runs the validation reporting every vocabulary to the given listener,
+     *                   the overall report it may return is not used
+     * @return streaming response body
+     */
+    public static StreamingResponseBody stream(
+        Locale locale, Consumer<ValidationListener> validation) {
+        final String lang = ValidationReportSerializer.getLang(locale);
+        return out -> {
+            final ValidationResultStreamer streamer = new ValidationResultStreamer(out, lang);
+            try {
+                validation.accept(streamer);
+            } catch (RuntimeException e) {
+                log.error("Streamed validation failed.", e);
+                streamer.error(e instanceof SGoVException
+                    ? e.getMessage() : "Validation failed unexpectedly.");
+                return;
+            }
+            streamer.finish();
+        };
+    }
+
+    @Override
+    public synchronized void vocabularyValidated(URI vocabularyContext,
+                                                 ValidationReport report) {
+        try {
+            gen.writeStartObject();
+            gen.writeStringField("type", "vocabulary");
+            gen.writeStringField("vocabularyContext", vocabularyContext.toString());
+            gen.writeBooleanField("conforms", report.conforms());
+            gen.writeFieldName("results");
+            gen.writeStartArray();
+            for (final ValidationResult r : report.results()) {
+                ValidationReportSerializer.writeResult(gen, r, lang);
+                resultCounts.merge(r.getSeverity(), 1L, Long::sum);
+            }
+            gen.writeEndArray();
+            endLine();
+            conforms = conforms && report.conforms();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the summary line of the vocabularies written so far.
+     */
+    public synchronized void finish() throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "summary");
+        gen.writeBooleanField("conforms", conforms);
+        gen.writeNumberField("resultCount",
+            resultCounts.values().stream().mapToLong(Long::longValue).sum());
+        gen.writeObjectFieldStart("resultCounts");
+        for (final Map.Entry<Resource, Long> count : resultCounts.entrySet()) {
+            gen.writeNumberField(count.getKey().getURI(), count.getValue());
+        }
+        gen.writeEndObject();
+        endLine();
+    }
+
+    /**
+     * Writes the error line.
+     *
+     * @param message description of the failure
+     */
+    public synchronized void error(String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", "error");
+        gen.writeStringField("message", message);
+        endLine();
+    }
+
+    private void endLine() throws IOException {
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+}
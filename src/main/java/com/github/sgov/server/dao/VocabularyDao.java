@@ -83,6 +83,26 @@ public class VocabularyDao extends BaseDao<VocabularyContext> {
         }
     }
 
+    /**
+     * Drops the stored validation reports of the given vocabulary context, one per validation
+     * profile.
+     *
+     * @param vocabularyContextUri vocabulary context URI
+     */
+    public void clearValidationReports(URI vocabularyContextUri) {
+        final Collection<URI> reports;
+        try {
+            reports = em.createNativeQuery(
+                    "SELECT DISTINCT ?g WHERE { GRAPH ?g { ?g ?p ?o } . }", URI.class)
+                .setParameter("p", URI.create(Vocabulary.s_p_validuje_kontext))
+                .setParameter("o", vocabularyContextUri)
+                .getResultList();
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+        clearContexts(reports);
+    }
+
     /**
      * Clears all application contexts for the given vocabulary context.
      *
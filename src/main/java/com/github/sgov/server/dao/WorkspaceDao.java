@@ -1,44 +1,90 @@
 package com.github.sgov.server.dao;
 
 import com.github.sgov.server.ValidationResultSeverityComparator;
-import com.github.sgov.server.Validator;
 import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.exception.PersistenceException;
+import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
 import com.github.sgov.server.model.util.DescriptorFactory;
+import com.github.sgov.server.persistence.RepositoryAccess;
 import com.github.sgov.server.util.Vocabulary;
-import com.google.gson.JsonObject;
+import com.github.sgov.server.validation.GraphFingerprints;
+import com.github.sgov.server.validation.ImportedVocabularyCache;
+import com.github.sgov.server.validation.InferenceMode;
+import com.github.sgov.server.validation.MergedValidationReport;
+import com.github.sgov.server.validation.ShapeSet;
+import com.github.sgov.server.validation.ShapesRegistry;
+import com.github.sgov.server.validation.SparqlCheck;
+import com.github.sgov.server.validation.ValidationData;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationOptions;
+import com.github.sgov.server.validation.ValidationPlan;
+import com.github.sgov.server.validation.ValidationReportRdf;
+import com.github.sgov.server.validation.ValidationResultCache;
+import com.github.sgov.server.validation.ValidationTasks;
 import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
-import java.io.IOException;
+import java.io.StringWriter;
 import java.net.URI;
-import java.net.URL;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import kong.unirest.HttpResponse;
-import kong.unirest.Unirest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.OntDocumentManager;
-import org.apache.jena.ontology.OntModelSpec;
-import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import org.topbraid.shacl.validation.ValidationReport;
 import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
 
 /**
  * DAO for accessing workspace.
@@ -47,19 +93,54 @@ import org.topbraid.shacl.validation.ValidationResult;
 @Repository
 public class WorkspaceDao extends BaseDao<Workspace> {
 
+    private static final Node IMPORTS = NodeFactory.createURI(Vocabulary.s_c_import);
+
+    private static final Var G = Var.alloc("g");
+    private static final Var S = Var.alloc("s");
+    private static final Var P = Var.alloc("p");
+    private static final Var O = Var.alloc("o");
+
     private final RepositoryConf properties;
 
     private final DescriptorFactory descriptorFactory;
 
+    private final ValidationConf validationConf;
+
+    private final Executor validationExecutor;
+
+    private final ShapesRegistry shapesRegistry;
+
+    private final ValidationResultCache resultCache;
+
+    private final ImportedVocabularyCache importCache;
+
+    private final ValidationMetrics metrics;
+
+    private final RepositoryAccess repositoryAccess;
+
     /**
      * Constructor.
      */
     @Autowired
     public WorkspaceDao(EntityManager em, DescriptorFactory descriptorFactory,
-                        RepositoryConf properties) {
+                        RepositoryConf properties,
+                        ValidationConf validationConf,
+                        @Qualifier("validationExecutor") Executor validationExecutor,
+                        ShapesRegistry shapesRegistry,
+                        ValidationResultCache resultCache,
+                        ImportedVocabularyCache importCache,
+                        ValidationMetrics metrics,
+                        RepositoryAccess repositoryAccess) {
         super(Workspace.class, em);
         this.properties = properties;
         this.descriptorFactory = descriptorFactory;
+        this.validationConf = validationConf;
+        this.validationExecutor = validationExecutor;
+        this.shapesRegistry = shapesRegistry;
+        this.resultCache = resultCache;
+        this.importCache = importCache;
+        this.metrics = metrics;
+        this.repositoryAccess = repositoryAccess;
     }
 
     @Override
@@ -86,6 +167,66 @@ public class WorkspaceDao extends BaseDao<Workspace> {
         }
     }
 
+    /**
+     * Finds a page of workspaces sorted by their IRIs. The workspaces are filtered, sorted and
+     * limited by a single typed query, like {@link #findAll()} lists all of them.
+     *
+     * @param after IRI of the workspace the page follows, the first page if null
+     * @param limit maximum number of workspaces, all workspaces if null
+     * @return workspaces on the page
+     */
+    public List<Workspace> findAll(URI after, Integer limit) {
+        try {
+            final TypedQuery<Workspace> query = em.createNativeQuery("SELECT ?x WHERE {"
+                    + " ?x a ?type . "
+                    + (after == null ? "" : "FILTER (STR(?x) > STR(?after)) ")
+                    + "} ORDER BY ?x", type)
+                .setParameter("type", typeUri);
+            if (after != null) {
+                query.setParameter("after", after);
+            }
+            if (limit != null) {
+                query.setMaxResults(limit);
+            }
+            return query.getResultList();
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Finds labels of a page of workspaces sorted by their IRIs, without loading the workspaces.
+     *
+     * @param after IRI of the workspace the page follows, the first page if null
+     * @param limit maximum number of workspaces, all workspaces if null
+     * @return map from workspace IRI to its label, null for workspaces without a label, in the
+     *     order of the IRIs
+     */
+    public Map<URI, String> findLabels(URI after, Integer limit) {
+        final Map<URI, String> labels = new LinkedHashMap<>();
+        try (RepositoryConnection connection = repositoryAccess
+            .getSparqlRepository(properties.getUrl()).getConnection()) {
+            final TupleQuery query = connection.prepareTupleQuery(
+                "SELECT ?x (SAMPLE(?l) AS ?label) WHERE {"
+                    + " ?x a <" + Vocabulary.s_c_metadatovy_kontext + "> ."
+                    + " OPTIONAL { ?x <" + DCTERMS.TITLE + "> ?l }"
+                    + (after == null ? "" : " FILTER (STR(?x) > STR(?after))")
+                    + " } GROUP BY ?x ORDER BY ?x"
+                    + (limit == null ? "" : " LIMIT " + limit));
+            if (after != null) {
+                query.setBinding("after",
+                    connection.getValueFactory().createIRI(after.toString()));
+            }
+            try (TupleQueryResult result = query.evaluate()) {
+                result.forEach(b -> labels.put(URI.create(b.getValue("x").stringValue()),
+                    b.hasBinding("label") ? b.getValue("label").stringValue() : null));
+            }
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+        return labels;
+    }
+
     //@ModifiesData
     @Override
     public Workspace update(Workspace entity) {
@@ -116,68 +257,509 @@ public class WorkspaceDao extends BaseDao<Workspace> {
     }
 
     /**
-     * Validates workspace.
+     * Validates workspace, or only its vocabularies selected by
+     * {@link ValidationOptions#getVocabularies()}.
      *
      * @param workspace workspace to be validated
+     * @param options   validation options
+     * @param listener  listener notified about validation progress
      * @return ValidationReport
      */
-    public ValidationReport validateWorkspace(final Workspace workspace) throws IOException {
+    public ValidationReport validateWorkspace(final Workspace workspace,
+                                              final ValidationOptions options,
+                                              final ValidationListener listener) {
         log.info("Validating workspace {}", workspace.getUri());
-        ValidationReport validationReport = validateVocabularies(workspace.getVocabularyContexts());
+        final Set<URI> selected = options.getVocabularies();
+        final Set<VocabularyContext> vocabularyContexts = selected.isEmpty()
+            ? workspace.getVocabularyContexts()
+            : workspace.getVocabularyContexts().stream()
+                .filter(vc -> selected.contains(vc.getUri())
+                    || selected.contains(vc.getBasedOnVersion()))
+                .collect(Collectors.toSet());
+        ValidationReport validationReport =
+            validateVocabularies(vocabularyContexts, options, listener);
         log.info("- done.");
         return validationReport;
     }
 
     /**
-     * Validates set of vocabulary contexts.
+     * Validates set of vocabulary contexts. Statements of the vocabularies are fetched in batches
+     * of {@link ValidationConf#getFetchBatchSize()} vocabularies per query, by default as many as
+     * are validated at the same time, so that the next batch is fetched while the previous one
+     * is validated and at most two batches are held in memory. The vocabularies are
+     * then validated concurrently on the shared validation executor, at most
+     * {@link ValidationConf#getMaxVocabulariesPerRequest()} of them at a time, see
+     * {@link ValidationTasks}. If the calling thread is interrupted or the request times out, the
+     * running validations are interrupted as well. Vocabularies which did not change since their
+     * last validation with the same profile are not validated again, their cached report is used
+     * instead.
+     *
+     * <p>Vocabularies are validated in the order of their imports, see {@link ValidationPlan}.
+     * Statements of a validated vocabulary are reused when validating the vocabularies importing
+     * it, instead of its published version. If {@link ValidationOptions#isFailFast()} is set,
+     * no further vocabularies are validated once some report contains a violation.
+     *
+     * <p>If {@link ValidationOptions#isChangesOnly()} is set, only entities recorded in the change
+     * tracking context of each vocabulary context are validated, see
+     * {@link #validateChanges(VocabularyContext, String, ShapeSet)}.
      *
      * @param vocabularyContexts set of vocabulary contexts to be validated
+     * @param options            validation options
+     * @param listener           listener notified about validation progress
      * @return ValidationReport
      */
     public ValidationReport validateVocabularies(
-        Set<VocabularyContext> vocabularyContexts) throws IOException {
-        final Validator validator = new Validator();
-        final Set<URL> rules = new HashSet<>();
-        rules.addAll(validator.getGlossaryRules());
-        rules.addAll(validator.getModelRules().stream()
-            .filter(r -> !r.getPath().contains("m2.ttl"))
-            .filter(r -> !r.getPath().contains("m3.ttl"))
-            .filter(r -> !r.getPath().contains("m4.ttl"))
-            .filter(r -> !r.getPath().contains("m5.ttl"))
-            .filter(r -> !r.getPath().contains("m6.ttl"))
-            .filter(r -> !r.getPath().contains("m7.ttl"))
-            .collect(Collectors.toSet())
-        );
-        rules.addAll(validator.getVocabularyRules());
-
-        boolean conforms = true;
+        Set<VocabularyContext> vocabularyContexts, ValidationOptions options,
+        ValidationListener listener) {
+        final ShapeSet shapes = shapesRegistry.getShapes(options.getProfile());
+        final boolean changesOnly = options.isChangesOnly();
 
         OntDocumentManager.getInstance().setProcessImports(false);
 
         final String endpoint = properties.getUrl();
+        final ValidationPlan plan = createPlan(vocabularyContexts, changesOnly, endpoint);
+        final Map<String, String> contents = changesOnly ? Collections.emptyMap()
+            : getGraphFingerprints(getGraphs(vocabularyContexts), endpoint);
+        final Map<URI, String> fingerprints = changesOnly
+            ? new HashMap<>() : getFingerprints(vocabularyContexts, contents, plan);
+        // imported vocabularies may change without a change of the vocabulary context
+        final String generation = validationConf.isImports()
+            ? "/" + importCache.getGeneration() : "";
+        final AtomicBoolean failed = new AtomicBoolean();
+        final ValidationListener progress = !options.isFailFast() ? listener
+            : new ValidationListener() {
+                @Override
+                public void started(Collection<URI> contexts) {
+                    listener.started(contexts);
+                }
 
+                @Override
+                public void vocabularyValidated(URI vocabularyContext, ValidationReport report) {
+                    if (hasViolation(report)) {
+                        failed.set(true);
+                    }
+                    listener.vocabularyValidated(vocabularyContext, report);
+                }
+            };
 
-        final List<ValidationResult> validationResults = new ArrayList<>();
+        progress.started(vocabularyContexts.stream()
+            .map(VocabularyContext::getUri).collect(Collectors.toList()));
+        final ValidationTasks tasks = new ValidationTasks(validationExecutor,
+            validationConf.getMaxVocabulariesPerRequest(), validationConf.getTimeout());
+        final List<CompletableFuture<ValidationReport>> reports = new ArrayList<>();
+        final Map<URI, VocabularyContext> toValidate = new HashMap<>();
         for (VocabularyContext c : vocabularyContexts) {
-            final ValidationReport report = validateVocabulary(c.getUri().toString(),
-                endpoint, validator, rules);
-            conforms = conforms && report.conforms();
-            validationResults.addAll(report.results());
+            final ValidationReport cached = changesOnly ? null
+                : resultCache.get(c.getUri(), shapes.getName(),
+                    fingerprints.get(c.getUri()) + generation);
+            if (cached != null) {
+                log.debug("- vocabulary context {} did not change, reusing its report",
+                    c.getUri());
+                reports.add(CompletableFuture.completedFuture(cached));
+                progress.vocabularyValidated(c.getUri(), cached);
+            } else {
+                toValidate.put(c.getUri(), c);
+            }
+        }
+        if (!changesOnly && validationConf.isPersistReports() && !toValidate.isEmpty()) {
+            final Map<URI, ValidationReport> stored = loadReports(toValidate.values(),
+                shapes.getName(), fingerprints, endpoint);
+            stored.forEach((c, report) -> {
+                log.debug("- vocabulary context {} did not change, reusing its stored report", c);
+                resultCache.put(c, shapes.getName(), fingerprints.get(c) + generation, report);
+                reports.add(CompletableFuture.completedFuture(report));
+                progress.vocabularyValidated(c, report);
+            });
+            toValidate.keySet().removeAll(stored.keySet());
+        }
+        // statements of validated vocabularies kept for their dependents
+        final Map<URI, Graph> retained = new ConcurrentHashMap<>();
+        // reports to be stored once all validations finish and release their threads
+        final Map<URI, CompletableFuture<ValidationReport>> computed = new LinkedHashMap<>();
+        try {
+            for (int level = 0; level < plan.getLevels().size() && !failed.get(); level++) {
+                final List<VocabularyContext> contexts = plan.getLevels().get(level).stream()
+                    .map(toValidate::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+                final int first = reports.size();
+                if (changesOnly) {
+                    for (VocabularyContext c : contexts) {
+                        if (failed.get()) {
+                            break;
+                        }
+                        reports.add(submit(tasks, c.getUri(),
+                            () -> validateChanges(c, endpoint, shapes),
+                            null, null, progress));
+                    }
+                } else if (validationConf.isPushdown() && !shapes.hasInProcessShapes()) {
+                    // all shapes are evaluated in the repository, no statements are fetched
+                    for (VocabularyContext c : contexts) {
+                        if (failed.get()) {
+                            break;
+                        }
+                        final CompletableFuture<ValidationReport> report = submit(tasks,
+                            c.getUri(), () -> validateInRepository(c.getUri(), shapes, endpoint,
+                                plan),
+                            shapes, fingerprints.get(c.getUri()) + generation, progress);
+                        computed.put(c.getUri(), report);
+                        reports.add(report);
+                    }
+                } else {
+                    final int batchSize = validationConf.getFetchBatchSize() > 0
+                        ? validationConf.getFetchBatchSize()
+                        : validationConf.getMaxVocabulariesPerRequest();
+                    for (int i = 0; i < contexts.size() && !failed.get(); i += batchSize) {
+                        final List<VocabularyContext> batch =
+                            contexts.subList(i, Math.min(i + batchSize, contexts.size()));
+                        final Map<URI, ValidationData> data =
+                            fetchVocabularies(batch, shapes, endpoint);
+                        try {
+                            for (VocabularyContext c : batch) {
+                                if (failed.get()) {
+                                    break;
+                                }
+                                final ValidationData d = data.get(c.getUri());
+                                final CompletableFuture<ValidationReport> report =
+                                    submit(tasks, c.getUri(), () -> validate(c.getUri(), d,
+                                            shapes, endpoint, plan, retained),
+                                        shapes, fingerprints.get(c.getUri()) + generation,
+                                        progress);
+                                data.remove(c.getUri());
+                                // releases data of validations which never started
+                                report.whenComplete((r, e) -> d.discardIfUnused());
+                                computed.put(c.getUri(), report);
+                                reports.add(report);
+                            }
+                        } finally {
+                            data.values().forEach(ValidationData::close);
+                        }
+                    }
+                }
+                // dependents of this level need its statements and reports
+                tasks.await(reports.subList(first, reports.size()));
+                final int validated = level;
+                retained.keySet().removeIf(vc -> plan.isUnusedAfter(vc, validated));
+            }
+        } catch (InterruptedException | TimeoutException | ExecutionException
+            | RuntimeException e) {
+            throw abort(tasks, e);
+        } finally {
+            retained.clear();
+        }
+        if (validationConf.isPersistReports() && !computed.isEmpty()) {
+            storeReports(computed, shapes.getName(), fingerprints, contents, plan, endpoint);
+        }
+        if (failed.get()) {
+            log.info("- stopped after the first violation, {} of {} vocabularies validated",
+                reports.size(), vocabularyContexts.size());
+        }
+
+        return MergedValidationReport.of(
+            reports.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * Cancels the running validations of a failed request and returns the exception to throw.
+     */
+    private RuntimeException abort(ValidationTasks tasks, Exception e) {
+        tasks.cancel();
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new SGoVException("Validation was interrupted.", e);
+        } else if (e instanceof TimeoutException) {
+            return new SGoVException("Validation did not finish within "
+                + validationConf.getTimeout() + ".", e);
+        } else if (e instanceof ExecutionException) {
+            return e.getCause() instanceof SGoVException
+                ? (SGoVException) e.getCause() : new SGoVException(e.getCause());
         }
-        validationResults.sort(new ValidationResultSeverityComparator());
-        boolean finalConforms = conforms;
+        return (RuntimeException) e;
+    }
+
+    private static boolean hasViolation(ValidationReport report) {
+        return report.results().stream().anyMatch(r -> SH.Violation.equals(r.getSeverity()));
+    }
 
-        return new ValidationReport() {
-            @Override
-            public boolean conforms() {
-                return finalConforms;
+    /**
+     * Plans the order of validation by the vocabularies imported by the vocabulary contexts, see
+     * {@link ValidationPlan}. Changes-only validation and validation without imports do not
+     * depend on other vocabularies, all vocabulary contexts are then validated at once.
+     */
+    private ValidationPlan createPlan(final Set<VocabularyContext> vocabularyContexts,
+                                      final boolean changesOnly,
+                                      final String endpoint) {
+        final Map<URI, URI> vocabularies = new HashMap<>();
+        vocabularyContexts.forEach(vc -> vocabularies.put(vc.getUri(), vc.getBasedOnVersion()));
+        final Map<URI, Set<String>> imports = new HashMap<>();
+        if (!changesOnly && validationConf.isImports() && !vocabularyContexts.isEmpty()) {
+            final StringBuilder values = new StringBuilder();
+            vocabularyContexts.forEach(vc -> values.append('<').append(vc.getUri()).append("> "));
+            final String query = "SELECT DISTINCT ?g ?o WHERE {"
+                + " VALUES ?g { " + values + "} GRAPH ?g {?s <" + Vocabulary.s_c_import + "> ?o}"
+                + " FILTER (isIRI(?o)) }";
+            try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint, query)) {
+                final ResultSet results = e.execSelect();
+                while (results.hasNext()) {
+                    final QuerySolution s = results.next();
+                    imports.computeIfAbsent(URI.create(s.getResource("g").getURI()),
+                        g -> new HashSet<>()).add(s.getResource("o").getURI());
+                }
             }
+        }
+        final ValidationPlan plan = ValidationPlan.create(vocabularies, imports);
+        log.debug("- validating {} vocabulary contexts in {} dependency levels",
+            vocabularies.size(), plan.getLevels().size());
+        return plan;
+    }
 
-            @Override
-            public List<ValidationResult> results() {
-                return validationResults;
+    /**
+     * Validates candidate statements of a vocabulary context in memory. Nothing is written to
+     * the repository and the report is neither cached nor stored, as it does not correspond to
+     * any stored content. The validation runs on the shared validation executor within the
+     * request timeout, like the validation of stored vocabularies, see {@link ValidationTasks}.
+     *
+     * @param candidate         candidate statements
+     * @param vocabularyContext vocabulary context whose stored statements are validated together
+     *                          with the candidate ones, or null to validate them alone
+     * @param options           validation options, changes-only validation is not supported
+     * @return ValidationReport
+     */
+    public ValidationReport validateCandidate(final Model candidate,
+                                              final VocabularyContext vocabularyContext,
+                                              final ValidationOptions options) {
+        final ShapeSet shapes = shapesRegistry.getShapes(options.getProfile());
+        OntDocumentManager.getInstance().setProcessImports(false);
+
+        final String endpoint = properties.getUrl();
+        final ValidationTasks tasks = new ValidationTasks(validationExecutor, 1,
+            validationConf.getTimeout());
+        try {
+            final CompletableFuture<ValidationReport> report = tasks.submit(() -> {
+                final Model dataModel = shapes.createDataModel(ModelFactory.createDefaultModel());
+                final Graph base = ShapeSet.getBaseGraph(dataModel);
+                GraphUtil.addInto(base, candidate.getGraph());
+                String v = "candidate statements";
+                if (vocabularyContext != null) {
+                    v = vocabularyContext.getUri().toString();
+                    log.debug("- validating candidate statements together with {}", v);
+                    fetchGraphs(Collections.singletonMap(v, base::add), endpoint);
+                }
+                return validate(v, dataModel, getImports(dataModel, endpoint).values(), shapes,
+                    false);
+            });
+            tasks.await(Collections.singletonList(report));
+            return report.join();
+        } catch (InterruptedException | TimeoutException | ExecutionException
+            | RuntimeException e) {
+            throw abort(tasks, e);
+        }
+    }
+
+    /**
+     * Runs the validation of a single vocabulary context as one of the tasks of the request. The
+     * report is cached if a fingerprint is given.
+     */
+    private CompletableFuture<ValidationReport> submit(ValidationTasks tasks,
+                                                       URI vocabularyContext,
+                                                       Supplier<ValidationReport> validation,
+                                                       ShapeSet shapes,
+                                                       String fingerprint,
+                                                       ValidationListener listener)
+        throws InterruptedException, TimeoutException {
+        return tasks.submit(validation)
+            .whenComplete((report, e) -> {
+                if (report == null) {
+                    return;
+                }
+                if (fingerprint != null) {
+                    resultCache.put(vocabularyContext, shapes.getName(), fingerprint, report);
+                }
+                listener.vocabularyValidated(vocabularyContext, report);
+            });
+    }
+
+    /**
+     * Returns the IRIs of the vocabulary contexts and of their change tracking contexts.
+     */
+    private static Set<String> getGraphs(Set<VocabularyContext> vocabularyContexts) {
+        final Set<String> graphs = new HashSet<>();
+        vocabularyContexts.forEach(vc -> {
+            graphs.add(vc.getUri().toString());
+            if (vc.getChangeTrackingContext() != null) {
+                graphs.add(vc.getChangeTrackingContext().getUri().toString());
             }
-        };
+        });
+        return graphs;
+    }
+
+    /**
+     * Computes content fingerprints of the given vocabulary contexts. The fingerprint consists of
+     * the fingerprints of the vocabulary context and of its change tracking context, see
+     * {@link GraphFingerprints}, so it changes whenever a statement is added, removed or edited,
+     * or a change is recorded. Fingerprints of the vocabulary contexts it depends on are appended,
+     * as their statements are validated together with it.
+     *
+     * @param vocabularyContexts vocabulary contexts to compute fingerprints for
+     * @param contents           fingerprints of the graphs from {@link #getGraphs(Set)}
+     * @param plan               validation plan of the vocabulary contexts
+     * @return map from vocabulary context IRI to its fingerprint
+     */
+    private static Map<URI, String> getFingerprints(Set<VocabularyContext> vocabularyContexts,
+                                                    Map<String, String> contents,
+                                                    ValidationPlan plan) {
+        final Map<URI, String> content = new HashMap<>();
+        vocabularyContexts.forEach(vc -> {
+            final String changes = vc.getChangeTrackingContext() != null
+                ? contents.getOrDefault(vc.getChangeTrackingContext().getUri().toString(),
+                    GraphFingerprints.EMPTY)
+                : "-";
+            content.put(vc.getUri(), contents.getOrDefault(vc.getUri().toString(),
+                GraphFingerprints.EMPTY) + "/" + changes);
+        });
+        final Map<URI, String> fingerprints = new HashMap<>();
+        content.forEach((vc, fingerprint) -> {
+            final Set<URI> dependencies = plan.getDependencies(vc);
+            fingerprints.put(vc, dependencies.isEmpty() ? fingerprint : fingerprint + "+"
+                + dependencies.stream()
+                .sorted(Comparator.comparing(URI::toString))
+                .map(content::get)
+                .collect(Collectors.joining(",")));
+        });
+        return fingerprints;
+    }
+
+    /**
+     * Computes content fingerprints of the given named graphs inside the repository, see
+     * {@link GraphFingerprints}. All statements of the graphs are hashed, which costs a scan of
+     * the graphs, but no statements are transferred.
+     *
+     * @return map from named graph IRI to its fingerprint, empty graphs are missing
+     */
+    private Map<String, String> getGraphFingerprints(final Collection<String> graphs,
+                                                     final String endpoint) {
+        final Map<String, String> fingerprints = new HashMap<>();
+        if (graphs.isEmpty()) {
+            return fingerprints;
+        }
+        try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint,
+            GraphFingerprints.createQuery(graphs))) {
+            final ResultSet results = e.execSelect();
+            while (results.hasNext()) {
+                final QuerySolution s = results.next();
+                fingerprints.put(s.getResource("g").getURI(), GraphFingerprints.getFingerprint(s));
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Loads stored reports of the given vocabulary contexts, see {@link ValidationReportRdf}.
+     * A stored report is used only if neither the vocabulary context nor any of the vocabularies
+     * it imported changed since the report was computed.
+     *
+     * @return map from vocabulary context IRI to its stored report
+     */
+    private Map<URI, ValidationReport> loadReports(final Collection<VocabularyContext> contexts,
+                                                   final String profile,
+                                                   final Map<URI, String> fingerprints,
+                                                   final String endpoint) {
+        final Map<URI, Graph> graphs = new HashMap<>();
+        final Map<String, Consumer<Triple>> sinks = new HashMap<>();
+        contexts.forEach(vc -> {
+            final Graph g = GraphFactory.createGraphMem();
+            graphs.put(vc.getUri(), g);
+            sinks.put(ValidationReportRdf.getReportGraph(vc.getUri(), profile), g::add);
+        });
+        fetchGraphs(sinks, endpoint);
+
+        final Map<URI, Map<String, String>> candidates = new HashMap<>();
+        graphs.forEach((vc, g) -> {
+            final String reportGraph = ValidationReportRdf.getReportGraph(vc, profile);
+            if (fingerprints.get(vc).equals(ValidationReportRdf.getFingerprint(g, reportGraph))) {
+                candidates.put(vc, ValidationReportRdf.getImports(g, reportGraph));
+            }
+        });
+        final Map<String, String> importFingerprints = getGraphFingerprints(candidates.values()
+            .stream()
+            .flatMap(i -> i.keySet().stream())
+            .collect(Collectors.toSet()), endpoint);
+
+        final Map<URI, ValidationReport> reports = new HashMap<>();
+        candidates.forEach((vc, imports) -> {
+            if (imports.entrySet().stream().allMatch(i ->
+                i.getValue().equals(importFingerprints.getOrDefault(i.getKey(),
+                    GraphFingerprints.EMPTY)))) {
+                reports.put(vc, ValidationReportRdf.toReport(graphs.get(vc),
+                    ValidationReportRdf.getReportGraph(vc, profile)));
+            }
+        });
+        return reports;
+    }
+
+    /**
+     * Stores the reports of the validated vocabulary contexts, after all validations of the
+     * request have finished, so that writing them does not hold validation threads. Content
+     * fingerprints of all published vocabularies they import are computed by a single query,
+     * like when the stored reports are loaded.
+     *
+     * @param reports      map from vocabulary context IRI to its completed validation
+     * @param profile      name of the validation profile
+     * @param fingerprints content fingerprints of the vocabulary contexts
+     * @param contents     fingerprints of the graphs of the vocabulary contexts
+     * @param plan         validation plan of the vocabulary contexts
+     * @param endpoint     SPARQL endpoint of the repository
+     */
+    private void storeReports(final Map<URI, CompletableFuture<ValidationReport>> reports,
+                              final String profile,
+                              final Map<URI, String> fingerprints,
+                              final Map<String, String> contents,
+                              final ValidationPlan plan,
+                              final String endpoint) {
+        final Map<URI, Set<String>> published = new HashMap<>();
+        reports.keySet().forEach(vc ->
+            published.put(vc, getPublishedImports(vc, plan, endpoint).keySet()));
+        final Map<String, String> publishedFingerprints = getGraphFingerprints(
+            published.values().stream().flatMap(Set::stream).collect(Collectors.toSet()),
+            endpoint);
+        reports.forEach((vc, report) -> {
+            final Map<String, String> importFingerprints = new LinkedHashMap<>();
+            published.get(vc).forEach(vocabulary -> importFingerprints.put(vocabulary,
+                publishedFingerprints.getOrDefault(vocabulary, GraphFingerprints.EMPTY)));
+            plan.getDependencies(vc).forEach(dependency -> importFingerprints.put(
+                dependency.toString(),
+                contents.getOrDefault(dependency.toString(), GraphFingerprints.EMPTY)));
+            storeReport(vc, profile, fingerprints.get(vc), importFingerprints, report.join(),
+                endpoint);
+        });
+    }
+
+    /**
+     * Replaces the stored report of the vocabulary context and links it to the workspaces
+     * referencing the vocabulary context. Failures are only logged, as the report is still
+     * returned to the client.
+     */
+    private void storeReport(final URI vocabularyContext,
+                             final String profile,
+                             final String fingerprint,
+                             final Map<String, String> importFingerprints,
+                             final ValidationReport report,
+                             final String endpoint) {
+        final String reportGraph = ValidationReportRdf.getReportGraph(vocabularyContext, profile);
+        final StringWriter statements = new StringWriter();
+        RDFDataMgr.write(statements, ValidationReportRdf.toModel(reportGraph, vocabularyContext,
+            profile, fingerprint, importFingerprints, report), Lang.NTRIPLES);
+        final String update = "DROP SILENT GRAPH <" + reportGraph + "> ;\n"
+            + "INSERT DATA { GRAPH <" + reportGraph + "> {\n" + statements + "} } ;\n"
+            + "INSERT { GRAPH <" + reportGraph + "> { <" + reportGraph + "> <"
+            + Vocabulary.s_p_v_pracovnim_prostoru + "> ?ws } } WHERE { GRAPH ?ws { ?ws <"
+            + Vocabulary.s_p_odkazuje_na_kontext + "> <" + vocabularyContext + "> } }";
+        try (RepositoryConnection connection = repositoryAccess
+            .getSparqlRepository(endpoint + "/statements").getConnection()) {
+            connection.prepareUpdate(QueryLanguage.SPARQL, update).execute();
+        } catch (RuntimeException e) {
+            log.warn("Could not store validation report of {}", vocabularyContext, e);
+        }
     }
 
     /**
@@ -196,37 +778,34 @@ public class WorkspaceDao extends BaseDao<Workspace> {
             .map(vc -> vc.getUri().toString())
             .collect(Collectors.joining(">)\n  (<", "  (<", ">)\n"));
 
-        final String uri = properties.getUrl();
-        final HttpResponse<JsonObject> response =
-            Unirest.post(uri).header("Content-type", "application/sparql-query")
-                .header("Accept", "application/sparql-results+json")
-                .body("SELECT ?vc ?label\n"
-                    + "WHERE {\n"
-                    + "    GRAPH ?vc { \n"
-                    + "        ?s a <" + Vocabulary.s_c_slovnik + "> .\n"
-                    + "        ?s <" + DCTERMS.TITLE + "> ?label .\n"
-                    + "        FILTER langMatches( lang(?label), \"" + language + "\" )\n"
-                    + "    }    \n"
-                    + "} VALUES (?vc) {\n"
-                    + values
-                    + "}")
-                .asObject(JsonObject.class);
-
         final Map<URI, String> uri2Labels = new HashMap<>();
-        response.getBody().getAsJsonObject("results").getAsJsonArray("bindings")
-            .forEach(b -> {
-                URI vc = URI.create(b.getAsJsonObject()
-                    .getAsJsonObject("vc").getAsJsonPrimitive("value").getAsString()
-                );
-                String label = b.getAsJsonObject()
-                    .getAsJsonObject("label").getAsJsonPrimitive("value").getAsString();
-
-                String previousValue = uri2Labels.putIfAbsent(vc, label);
-                if (previousValue != null) {
-                    log.warn("Found multiple labels of a vocabulary "
-                        + "within vocabulary context {}. Ignoring label {}.", vc, label);
-                }
-            });
+        try (RepositoryConnection connection = repositoryAccess
+            .getSparqlRepository(properties.getUrl()).getConnection()) {
+            final TupleQuery query = connection.prepareTupleQuery("SELECT ?vc ?label\n"
+                + "WHERE {\n"
+                + "    GRAPH ?vc { \n"
+                + "        ?s a <" + Vocabulary.s_c_slovnik + "> .\n"
+                + "        ?s <" + DCTERMS.TITLE + "> ?label .\n"
+                + "        FILTER langMatches( lang(?label), \"" + language + "\" )\n"
+                + "    }    \n"
+                + "} VALUES (?vc) {\n"
+                + values
+                + "}");
+            try (TupleQueryResult result = query.evaluate()) {
+                result.forEach(b -> {
+                    URI vc = URI.create(b.getValue("vc").stringValue());
+                    String label = b.getValue("label").stringValue();
+
+                    String previousValue = uri2Labels.putIfAbsent(vc, label);
+                    if (previousValue != null) {
+                        log.warn("Found multiple labels of a vocabulary "
+                            + "within vocabulary context {}. Ignoring label {}.", vc, label);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
         vocabularyContexts.forEach(
             vc -> vc.setLabel(uri2Labels.get(vc.getUri()))
         );
@@ -257,21 +836,289 @@ public class WorkspaceDao extends BaseDao<Workspace> {
     }
 
 
-    private ValidationReport validateVocabulary(final String v,
-                                                final String endpoint,
-                                                final Validator validator,
-                                                final Set<URL> rules)
-        throws IOException {
-        final String bindings = "<" + v + ">";
-        final ParameterizedSparqlString query = new ParameterizedSparqlString(
-            "CONSTRUCT {?s ?p ?o} WHERE  {GRAPH ?g {?s ?p ?o}} VALUES ?g {" + bindings + "}");
-        log.debug("- getting all statements for the vocabularies using query {}", query);
-        final QueryExecution e = QueryExecutionFactory
-            .sparqlService(endpoint, query.asQuery());
-        final Model dataModel =
-            ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM_RDFS_INF);
-        e.execConstruct(dataModel);
-        log.debug("- done, now validating");
-        return validator.validate(dataModel, rules);
+    /**
+     * Fetches statements of all given vocabulary contexts in a single streamed query and splits
+     * them by graph on the client. Statements to be validated with full inference are not moved
+     * to disk, as the inference model would keep them in memory anyway, see
+     * {@link ValidationData}.
+     *
+     * @return map from vocabulary context IRI to the data of the vocabulary context
+     */
+    private Map<URI, ValidationData> fetchVocabularies(
+        final List<VocabularyContext> vocabularyContexts, final ShapeSet shapes,
+        final String endpoint) {
+        final long spillThreshold = shapes.getInference() == InferenceMode.FULL
+            ? 0 : validationConf.getSpillThreshold();
+        final Map<URI, ValidationData> data = new HashMap<>();
+        final Map<String, Consumer<Triple>> sinks = new HashMap<>();
+        vocabularyContexts.forEach(vc -> {
+            final ValidationData d = new ValidationData(vc.getUri().toString(),
+                spillThreshold, Paths.get(validationConf.getSpillDirectory()));
+            data.put(vc.getUri(), d);
+            sinks.put(vc.getUri().toString(), d::add);
+        });
+        log.debug("- getting all statements of {} vocabulary contexts",
+            vocabularyContexts.size());
+        try {
+            fetchGraphs(sinks, endpoint);
+            data.values().forEach(ValidationData::finishLoading);
+        } catch (RuntimeException e) {
+            data.values().forEach(ValidationData::close);
+            throw e;
+        }
+        return data;
+    }
+
+    /**
+     * Fetches statements of published vocabularies.
+     *
+     * @return map from vocabulary IRI to a graph with its statements
+     */
+    private Map<String, Graph> fetchPublishedVocabularies(final Set<String> vocabularies,
+                                                          final String endpoint) {
+        final Map<String, Graph> graphs = new HashMap<>();
+        final Map<String, Consumer<Triple>> sinks = new HashMap<>();
+        vocabularies.forEach(v -> {
+            final Graph g = GraphFactory.createGraphMem();
+            graphs.put(v, g);
+            sinks.put(v, g::add);
+        });
+        log.debug("- getting all statements of imported vocabularies {}", vocabularies);
+        fetchGraphs(sinks, endpoint);
+        return graphs;
+    }
+
+    /**
+     * Fetches statements of the given named graphs in a single streamed query. The fetch stops
+     * once the calling thread is interrupted, e.g. when the validation is cancelled.
+     *
+     * @param graphs   map from named graph IRI to the consumer of its statements
+     * @param endpoint SPARQL endpoint of the repository
+     */
+    private void fetchGraphs(final Map<String, Consumer<Triple>> graphs,
+                             final String endpoint) {
+        final StringBuilder values = new StringBuilder();
+        graphs.keySet().forEach(g -> values.append('<').append(g).append("> "));
+        final String query = "SELECT ?g ?s ?p ?o WHERE {"
+            + " VALUES ?g { " + values + "} GRAPH ?g {?s ?p ?o} }";
+        final long start = System.nanoTime();
+        long count = 0;
+        try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint, query)) {
+            final ResultSet results = e.execSelect();
+            while (results.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new SGoVException("Fetching statements was interrupted.");
+                }
+                final Binding b = results.nextBinding();
+                graphs.get(b.get(G).getURI()).accept(
+                    Triple.create(b.get(S), b.get(P), b.get(O)));
+                count++;
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+        metrics.recordFetch(count, nanos);
+        log.debug("- done, fetched {} statements of {} graphs in {} ms", count, graphs.size(),
+            TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Validates only entities of the vocabulary context that were changed within the workspace,
+     * i.e. those recorded in its change tracking context. Besides the changed entities, the data
+     * model holds their one-hop neighbourhood, so that shapes may check e.g. the types of
+     * related terms. Only results focused on the changed entities are reported.
+     */
+    private ValidationReport validateChanges(final VocabularyContext vocabularyContext,
+                                             final String endpoint,
+                                             final ShapeSet shapes) {
+        final String v = vocabularyContext.getUri().toString();
+        final Set<String> changed = getChangedEntities(vocabularyContext, endpoint);
+        log.debug("- validating {} changed entities of {}", changed.size(), v);
+        if (changed.isEmpty()) {
+            return new MergedValidationReport(true, Collections.emptyList());
+        }
+        final String focusNodes = changed.stream()
+            .map(e -> "<" + e + ">")
+            .collect(Collectors.joining(" "));
+        final String query = "CONSTRUCT {?s ?p ?o} WHERE { GRAPH <" + v + "> {"
+            + " { VALUES ?f { " + focusNodes + " } ?f ?x ?s }"
+            + " UNION { VALUES ?f { " + focusNodes + " } ?s ?x ?f }"
+            + " UNION { VALUES ?s { " + focusNodes + " } }"
+            + " ?s ?p ?o } }";
+        final Model dataModel = shapes.createDataModel(ModelFactory.createDefaultModel());
+        try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint, query)) {
+            e.execConstruct(dataModel);
+        }
+        final List<ValidationResult> results = validate(v, dataModel,
+            getImports(dataModel, endpoint).values(), shapes, false)
+            .results().stream()
+            .filter(r -> r.getFocusNode().isURIResource()
+                && changed.contains(r.getFocusNode().asResource().getURI()))
+            .collect(Collectors.toList());
+        return new MergedValidationReport(results.isEmpty(), results);
+    }
+
+    private Set<String> getChangedEntities(final VocabularyContext vocabularyContext,
+                                           final String endpoint) {
+        final Set<String> changed = new HashSet<>();
+        if (vocabularyContext.getChangeTrackingContext() == null) {
+            return changed;
+        }
+        final String query = "SELECT DISTINCT ?e WHERE { GRAPH <"
+            + vocabularyContext.getChangeTrackingContext().getUri() + "> {"
+            + " ?c <" + Vocabulary.s_p_ma_zmenenou_entitu + "> ?e } }";
+        try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint, query)) {
+            final ResultSet results = e.execSelect();
+            while (results.hasNext()) {
+                final QuerySolution s = results.next();
+                if (s.get("e").isURIResource()) {
+                    changed.add(s.getResource("e").getURI());
+                }
+            }
+        }
+        return changed;
+    }
+
+    private ValidationReport validate(final URI vocabularyContext,
+                                      final ValidationData data,
+                                      final ShapeSet shapes,
+                                      final String endpoint,
+                                      final ValidationPlan plan,
+                                      final Map<URI, Graph> retained) {
+        final String v = vocabularyContext.toString();
+        try (ValidationData d = data) {
+            if (d.isSpilled()) {
+                log.debug("- validating {} statements of {} on disk", d.size(), v);
+            }
+            final Model dataModel = shapes.createDataModel(d.getModel());
+            final Map<String, Graph> imports = getPublishedImports(vocabularyContext, plan,
+                endpoint);
+            final Set<String> missing = new HashSet<>();
+            plan.getDependencies(vocabularyContext).forEach(dependency -> {
+                final Graph g = retained.get(dependency);
+                if (g != null) {
+                    imports.put(dependency.toString(), new GraphReadOnly(g));
+                } else {
+                    missing.add(dependency.toString());
+                }
+            });
+            if (!missing.isEmpty()) {
+                imports.putAll(fetchPublishedVocabularies(missing, endpoint));
+            }
+            final boolean pushdown = validationConf.isPushdown();
+            ValidationReport report = validate(v, dataModel, imports.values(), shapes, pushdown);
+            if (pushdown) {
+                report = MergedValidationReport.of(Arrays.asList(report,
+                    runSparqlChecks(v, imports.keySet(), shapes, endpoint)));
+            }
+            // spilled statements are bound to the transaction of this thread
+            if (plan.hasDependents(vocabularyContext) && !d.isSpilled()) {
+                retained.put(vocabularyContext, ShapeSet.getBaseGraph(dataModel));
+            }
+            return report;
+        }
+    }
+
+    private ValidationReport validate(final String v,
+                                      final Model dataModel,
+                                      final Collection<Graph> imports,
+                                      final ShapeSet shapes,
+                                      final boolean skipSparqlChecks) {
+        final long statements = ShapeSet.getBaseGraph(dataModel).size();
+        final long start = System.nanoTime();
+        try {
+            final ValidationReport report = shapes.validate(dataModel, imports,
+                (rule, nanos) -> metrics.recordRule(shapes.getName(), rule, nanos),
+                skipSparqlChecks);
+            final long nanos = System.nanoTime() - start;
+            metrics.recordVocabulary(shapes.getName(), statements, nanos, report);
+            log.debug("- validated {} statements of {} in {} ms, {} results", statements, v,
+                TimeUnit.NANOSECONDS.toMillis(nanos), report.results().size());
+            return report;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SGoVException("Validation of " + v + " was interrupted.", ex);
+        }
+    }
+
+    /**
+     * Validates a vocabulary context whose shapes are all evaluated inside the repository. The
+     * imported vocabularies and the vocabulary contexts it depends on are queried together with
+     * it, only the published vocabularies are fetched to resolve their imports.
+     */
+    private ValidationReport validateInRepository(final URI vocabularyContext,
+                                                  final ShapeSet shapes,
+                                                  final String endpoint,
+                                                  final ValidationPlan plan) {
+        final Set<String> imports = new LinkedHashSet<>(
+            getPublishedImports(vocabularyContext, plan, endpoint).keySet());
+        plan.getDependencies(vocabularyContext).forEach(d -> imports.add(d.toString()));
+        return runSparqlChecks(vocabularyContext.toString(), imports, shapes, endpoint);
+    }
+
+    /**
+     * Returns the published vocabularies imported by the vocabulary context or by the
+     * vocabulary contexts it depends on, directly or transitively.
+     *
+     * @return modifiable map from vocabulary IRI to a read-only graph of its statements
+     */
+    private Map<String, Graph> getPublishedImports(final URI vocabularyContext,
+                                                   final ValidationPlan plan,
+                                                   final String endpoint) {
+        final Set<String> published = plan.getPublishedImports(vocabularyContext);
+        if (!validationConf.isImports() || published.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        final Graph statements = GraphFactory.createGraphMem();
+        final Node subject = NodeFactory.createURI(vocabularyContext.toString());
+        published.forEach(i -> statements.add(
+            Triple.create(subject, IMPORTS, NodeFactory.createURI(i))));
+        return new LinkedHashMap<>(importCache.getImports(statements,
+            vocabularies -> fetchPublishedVocabularies(vocabularies, endpoint)));
+    }
+
+    /**
+     * Evaluates the shapes compiled to SPARQL queries inside the repository.
+     *
+     * @param v        vocabulary context IRI
+     * @param imports  IRIs of the imported vocabularies queried together with the vocabulary
+     * @param shapes   shape set whose SPARQL checks are evaluated
+     * @param endpoint SPARQL endpoint of the repository
+     * @return report with the results of the SPARQL checks, sorted by severity
+     */
+    private ValidationReport runSparqlChecks(final String v,
+                                             final Set<String> imports,
+                                             final ShapeSet shapes,
+                                             final String endpoint) {
+        final Model results = ModelFactory.createDefaultModel();
+        final List<ValidationResult> violations = new ArrayList<>();
+        final Map<String, Long> ruleNanos = new LinkedHashMap<>();
+        final long start = System.nanoTime();
+        for (final SparqlCheck check : shapes.getSparqlChecks()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new SGoVException("Validation of " + v + " was interrupted.");
+            }
+            final long checkStart = System.nanoTime();
+            try (QueryExecution e = repositoryAccess.createQueryExecution(endpoint,
+                check.createQuery(v, imports))) {
+                final ResultSet solutions = e.execSelect();
+                while (solutions.hasNext()) {
+                    violations.add(check.createResult(solutions.next(), results));
+                }
+            }
+            ruleNanos.merge(check.getRule(), System.nanoTime() - checkStart, Long::sum);
+        }
+        ruleNanos.forEach((rule, nanos) -> metrics.recordRule(shapes.getName(), rule, nanos));
+        log.debug("- evaluated {} SPARQL checks of {} in the repository in {} ms, {} results",
+            shapes.getSparqlChecks().size(), v,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), violations.size());
+        violations.sort(new ValidationResultSeverityComparator());
+        return new MergedValidationReport(violations.isEmpty(), violations);
+    }
+
+    private Map<String, Graph> getImports(final Model dataModel, final String endpoint) {
+        return validationConf.isImports()
+            ? importCache.getImports(ShapeSet.getBaseGraph(dataModel),
+                vocabularies -> fetchPublishedVocabularies(vocabularies, endpoint))
+            : Collections.emptyMap();
     }
 }
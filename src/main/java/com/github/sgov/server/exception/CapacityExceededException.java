@@ -0,0 +1,10 @@
+package com.github.sgov.server.exception;
+
+/**
+ * Indicates that the server cannot accept more work of the requested kind at the moment.
+ */
+public class CapacityExceededException extends SGoVException {
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
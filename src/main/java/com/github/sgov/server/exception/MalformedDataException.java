@@ -0,0 +1,10 @@
+package com.github.sgov.server.exception;
+
+/**
+ * Indicates that data passed to the application cannot be parsed.
+ */
+public class MalformedDataException extends SGoVException {
+    public MalformedDataException(String message) {
+        super(message);
+    }
+}
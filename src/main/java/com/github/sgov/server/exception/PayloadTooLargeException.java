@@ -0,0 +1,10 @@
+package com.github.sgov.server.exception;
+
+/**
+ * Indicates that data passed to the application exceed the configured size limit.
+ */
+public class PayloadTooLargeException extends SGoVException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
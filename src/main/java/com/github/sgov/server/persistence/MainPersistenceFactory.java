@@ -62,9 +62,10 @@ public class MainPersistenceFactory {
 
     @PostConstruct
     private void init() {
-        // Allow Apache HTTP client used by RDF4J to use a larger connection pool
-        // Temporary, should be configurable via JOPA
-        System.setProperty("http.maxConnections", "20");
+        // The HTTP client of the JOPA driver is configured only by system properties, other
+        // repository access shares the pool of RepositoryAccess
+        System.setProperty("http.maxConnections",
+            String.valueOf(repositoryConf.getMaxConnections()));
         final Map<String, String> properties = defaultParams();
         properties.put(ONTOLOGY_PHYSICAL_URI_KEY, repositoryConf.getUrl());
         properties.put(DATA_SOURCE_CLASS, persistenceConf.getDriver());
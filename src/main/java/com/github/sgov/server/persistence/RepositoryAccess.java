@@ -0,0 +1,201 @@
+package com.github.sgov.server.persistence;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.util.IdnUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.http.HTTPRepository;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Long-lived RDF4J repositories of the workspace repository, shared by all services.
+ *
+ * <p>Repositories are created once per URL and share a single HTTP client, whose connection pool
+ * size, keep-alive and timeouts are configured by {@link RepositoryConf}. The pool is exposed as
+ * Micrometer metrics when a meter registry is available. Repositories must not be shut down by
+ * their users, only connections obtained from them are closed. Jena queries are sent through the
+ * same HTTP client, which holds the credentials of the repository, see
+ * {@link #createQueryExecution(String, Query)}.
+ */
+@Slf4j
+@Component
+public class RepositoryAccess {
+
+    private final RepositoryConf repositoryConf;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final Map<String, Repository> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * ASCII forms of the endpoint URLs, keyed by the URLs as configured.
+     */
+    private final Map<String, String> asciiEndpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the shared HTTP client.
+     */
+    @Autowired
+    public RepositoryAccess(RepositoryConf repositoryConf,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.repositoryConf = repositoryConf;
+        final long keepAlive = repositoryConf.getKeepAlive().toMillis();
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(repositoryConf.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(repositoryConf.getMaxConnections());
+        final HttpClientBuilder builder = HttpClients.custom();
+        if (repositoryConf.getUsername() != null) {
+            final BasicCredentialsProvider credentials = new BasicCredentialsProvider();
+            credentials.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(
+                repositoryConf.getUsername(), repositoryConf.getPassword()));
+            builder.setDefaultCredentialsProvider(credentials);
+        }
+        this.httpClient = builder
+            .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectTimeout((int) repositoryConf.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) repositoryConf.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) repositoryConf.getReadTimeout().toMillis())
+                .build())
+            // the server may ask for a shorter keep-alive, never a longer one
+            .setKeepAliveStrategy((response, context) -> {
+                final long requested =
+                    DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+                        context);
+                return requested < 0 ? keepAlive : Math.min(requested, keepAlive);
+            })
+            .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+            .build();
+        meterRegistry.ifAvailable(registry -> new PoolingHttpClientConnectionManagerMetricsBinder(
+            connectionManager, "sgov-repository").bindTo(registry));
+    }
+
+    /**
+     * Returns the SPARQL repository for querying the workspace repository.
+     */
+    public Repository getQueryRepository() {
+        return getSparqlRepository(repositoryConf.getUrl());
+    }
+
+    /**
+     * Returns the SPARQL repository for updating the workspace repository.
+     */
+    public Repository getUpdateRepository() {
+        return getSparqlRepository(repositoryConf.getUrl() + "/statements");
+    }
+
+    /**
+     * Returns the workspace repository accessed by the RDF4J HTTP protocol, e.g. to add
+     * statements without serializing them into a SPARQL update.
+     */
+    public Repository getHttpRepository() {
+        return get("http:" + repositoryConf.getUrl(), url -> {
+            final HTTPRepository repository = new HTTPRepository(repositoryConf.getUrl());
+            repository.setHttpClient(httpClient);
+            if (repositoryConf.getUsername() != null) {
+                repository.setUsernameAndPassword(repositoryConf.getUsername(),
+                    repositoryConf.getPassword());
+            }
+            return repository;
+        });
+    }
+
+    /**
+     * Returns the SPARQL repository of the given SPARQL endpoint.
+     *
+     * @param endpoint URL of the SPARQL endpoint, may contain unicode characters
+     * @return repository
+     */
+    public Repository getSparqlRepository(String endpoint) {
+        return get("sparql:" + endpoint, url -> {
+            final SPARQLRepository repository = new SPARQLRepository(toAscii(endpoint));
+            repository.setHttpClient(httpClient);
+            if (repositoryConf.getUsername() != null) {
+                repository.setUsernameAndPassword(repositoryConf.getUsername(),
+                    repositoryConf.getPassword());
+            }
+            return repository;
+        });
+    }
+
+    /**
+     * Creates a Jena execution of the given query at the given SPARQL endpoint, sending its
+     * requests through the shared HTTP client with the credentials of the repository.
+     *
+     * @param endpoint URL of the SPARQL endpoint, may contain unicode characters
+     * @param query    SPARQL query
+     * @return query execution, to be closed by the caller
+     */
+    public QueryExecution createQueryExecution(String endpoint, Query query) {
+        return QueryExecutionFactory.sparqlService(toAscii(endpoint), query, httpClient);
+    }
+
+    /**
+     * Creates a Jena execution of the given query, see {@link #createQueryExecution(String,
+     * Query)}.
+     *
+     * @param endpoint URL of the SPARQL endpoint, may contain unicode characters
+     * @param query    SPARQL query string
+     * @return query execution, to be closed by the caller
+     */
+    public QueryExecution createQueryExecution(String endpoint, String query) {
+        return createQueryExecution(endpoint, QueryFactory.create(query));
+    }
+
+    /**
+     * Converts the endpoint URL to ASCII once, later calls return the cached result.
+     */
+    private String toAscii(String endpoint) {
+        return asciiEndpoints.computeIfAbsent(endpoint, url -> {
+            try {
+                return IdnUtils.convertUnicodeUrlToAscii(url);
+            } catch (URISyntaxException e) {
+                throw new SGoVException(e);
+            }
+        });
+    }
+
+    private Repository get(String key, Function<String, Repository> factory) {
+        return repositories.computeIfAbsent(key, factory);
+    }
+
+    @PreDestroy
+    private void close() {
+        repositories.values().forEach(Repository::shutDown);
+        repositories.clear();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Could not close HTTP client of the repository", e);
+        }
+    }
+}
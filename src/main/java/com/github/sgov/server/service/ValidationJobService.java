@@ -0,0 +1,143 @@
+package com.github.sgov.server.service;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.CapacityExceededException;
+import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.ValidationException;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.service.repository.WorkspaceRepositoryService;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationOptions;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Runs workspace validations in the background so that clients can poll for their progress
+ * instead of holding a request open for the whole validation.
+ */
+@Service
+@Slf4j
+public class ValidationJobService {
+
+    private final WorkspaceRepositoryService repositoryService;
+
+    private final ValidationConf validationConf;
+
+    private final AsyncTaskExecutor jobExecutor;
+
+    private final Map<String, ValidationJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     */
+    @Autowired
+    public ValidationJobService(WorkspaceRepositoryService repositoryService,
+                                ValidationConf validationConf,
+                                @Qualifier("validationJobExecutor")
+                                    AsyncTaskExecutor jobExecutor) {
+        this.repositoryService = repositoryService;
+        this.validationConf = validationConf;
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * Submits validation of the given workspace.
+     *
+     * @param workspaceUri IRI of the workspace to validate
+     * @param options      validation options
+     * @return the queued job
+     * @throws CapacityExceededException if too many jobs are already waiting
+     */
+    public ValidationJob submit(URI workspaceUri, ValidationOptions options) {
+        final Workspace workspace = repositoryService.findRequired(workspaceUri);
+        final Set<VocabularyContext> contexts = new HashSet<>(workspace.getVocabularyContexts());
+        removeExpired();
+
+        final ValidationJob job =
+            new ValidationJob(UUID.randomUUID().toString(), workspaceUri, options);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(jobExecutor.submit(() -> run(job, contexts)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new CapacityExceededException(
+                "Too many validation jobs are waiting, try again later.");
+        }
+        log.info("Validation job {} of workspace {} submitted", job.getId(), workspaceUri);
+        return job;
+    }
+
+    private void run(ValidationJob job, Set<VocabularyContext> contexts) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            job.finish(repositoryService.validateVocabularies(contexts, job.getOptions(), job));
+            log.info("Validation job {} finished", job.getId());
+        } catch (RuntimeException e) {
+            log.warn("Validation job {} failed", job.getId(), e);
+            job.fail(e);
+        }
+    }
+
+    /**
+     * Returns the job with the given identifier.
+     *
+     * @param id job identifier
+     * @throws NotFoundException if the job does not exist or has already been discarded
+     */
+    public ValidationJob get(String id) {
+        final ValidationJob job = jobs.get(id);
+        if (job == null) {
+            throw NotFoundException.create("Validation job", id);
+        }
+        return job;
+    }
+
+    /**
+     * Cancels the job with the given identifier. Cancelling a finished job has no effect.
+     *
+     * @param id job identifier
+     * @return the job
+     */
+    public ValidationJob cancel(String id) {
+        final ValidationJob job = get(id);
+        if (job.cancel()) {
+            log.info("Validation job {} cancelled", id);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the report of a finished job.
+     *
+     * @param id job identifier
+     * @throws ValidationException if the job has not finished successfully
+     */
+    public ValidationReport getReport(String id) {
+        final ValidationJob job = get(id);
+        if (job.getStatus() != ValidationJob.Status.FINISHED) {
+            throw new ValidationException(
+                "Validation job " + id + " has no report, its status is " + job.getStatus());
+        }
+        return job.getReport();
+    }
+
+    private void removeExpired() {
+        final long threshold =
+            System.currentTimeMillis() - validationConf.getJobRetention().toMillis();
+        jobs.values().removeIf(job -> job.isDone() && job.getFinished().getTime() < threshold);
+    }
+}
@@ -3,8 +3,12 @@ package com.github.sgov.server.service;
 import static com.github.sgov.server.service.WorkspaceUtils.attachmentStub;
 import static com.github.sgov.server.service.WorkspaceUtils.stub;
 
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.controller.dto.VocabularyContextDto;
+import com.github.sgov.server.controller.dto.WorkspaceDto;
+import com.github.sgov.server.exception.MalformedDataException;
 import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.PayloadTooLargeException;
 import com.github.sgov.server.exception.ValidationException;
 import com.github.sgov.server.model.AttachmentContext;
 import com.github.sgov.server.model.TrackableContext;
@@ -13,13 +17,26 @@ import com.github.sgov.server.model.Workspace;
 import com.github.sgov.server.service.repository.AttachmentRepositoryService;
 import com.github.sgov.server.service.repository.VocabularyRepositoryService;
 import com.github.sgov.server.service.repository.WorkspaceRepositoryService;
+import com.github.sgov.server.service.repository.WorkspaceVocabularyIndex;
+import com.github.sgov.server.util.LimitedInputStream;
+import com.github.sgov.server.util.SingleFlight;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationOptions;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFParserBuilder;
+import org.apache.jena.riot.RiotException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.topbraid.shacl.validation.ValidationReport;
@@ -37,41 +54,132 @@ public class WorkspaceService {
 
     private final AttachmentRepositoryService attachmentService;
 
+    private final WorkspaceVocabularyIndex workspaceVocabularyIndex;
+
+    private final ValidationConf validationConf;
+
+    private final SingleFlight<List<Object>, ValidationReport> validations = new SingleFlight<>();
+
     /**
      * Constructor.
      */
     @Autowired
     public WorkspaceService(WorkspaceRepositoryService repositoryService,
                             VocabularyRepositoryService vocabularyService,
-                            AttachmentRepositoryService attachmentService) {
+                            AttachmentRepositoryService attachmentService,
+                            WorkspaceVocabularyIndex workspaceVocabularyIndex,
+                            ValidationConf validationConf) {
         this.repositoryService = repositoryService;
         this.vocabularyService = vocabularyService;
         this.attachmentService = attachmentService;
+        this.workspaceVocabularyIndex = workspaceVocabularyIndex;
+        this.validationConf = validationConf;
+    }
+
+    /**
+     * Validates the workspace with the given IRI. Concurrent identical validations share a single
+     * computation, which is awaited at most for {@link ValidationConf#getTimeout()}.
+     *
+     * @param workspaceUri Workspace that should be created.
+     * @param options      Validation options.
+     */
+    public ValidationReport validate(URI workspaceUri, ValidationOptions options) {
+        return validations.execute(List.of(workspaceUri, options),
+            () -> validate(workspaceUri, options, ValidationListener.NONE),
+            validationConf.getTimeout());
     }
 
     /**
-     * Validates the workspace with the given IRI.
+     * Validates the workspace with the given IRI, reporting progress to the listener.
      *
      * @param workspaceUri Workspace that should be created.
+     * @param options      Validation options.
+     * @param listener     Listener notified about each validated vocabulary.
      */
-    public ValidationReport validate(URI workspaceUri) {
+    public ValidationReport validate(URI workspaceUri, ValidationOptions options,
+                                     ValidationListener listener) {
         final Workspace workspace = getWorkspace(workspaceUri);
-        return repositoryService.validateWorkspace(workspace);
+        return repositoryService.validateWorkspace(workspace, options, listener);
+    }
+
+    /**
+     * Validates set of vocabularies identified by their context IRIs. Concurrent identical
+     * validations share a single computation, which is awaited at most for
+     * {@link ValidationConf#getTimeout()}.
+     *
+     * @param vocabularyContextUris Set of vocabulary context IRIs.
+     * @param options               Validation options.
+     */
+    public ValidationReport validate(Set<URI> vocabularyContextUris,
+                                     ValidationOptions options) {
+        return validations.execute(List.of(Set.copyOf(vocabularyContextUris), options),
+            () -> validate(vocabularyContextUris, options, ValidationListener.NONE),
+            validationConf.getTimeout());
     }
 
     /**
-     * Validates set of vocabularies identified by their context IRIs.
+     * Validates set of vocabularies identified by their context IRIs, reporting progress to the
+     * listener.
      *
      * @param vocabularyContextUris Set of vocabulary context IRIs.
+     * @param options               Validation options.
+     * @param listener              Listener notified about each validated vocabulary.
      */
-    public ValidationReport validate(Set<URI> vocabularyContextUris) {
+    public ValidationReport validate(Set<URI> vocabularyContextUris,
+                                     ValidationOptions options,
+                                     ValidationListener listener) {
         return repositoryService.validateVocabularies(
             vocabularyContextUris.stream().map(
                 vocabularyService::findRequired
-            ).collect(Collectors.toSet())
+            ).collect(Collectors.toSet()),
+            options,
+            listener
         );
     }
 
+    /**
+     * Validates candidate statements of a vocabulary context in memory, without storing them.
+     * At most {@link ValidationConf#getMaxCandidateBytes()} bytes of the statements are read.
+     *
+     * @param data                 Serialized candidate statements.
+     * @param lang                 RDF syntax of the statements.
+     * @param vocabularyContextUri Vocabulary context the statements belong to, may be null
+     *                             unless union is requested.
+     * @param union                Whether the statements are validated together with the
+     *                             stored statements of the vocabulary context.
+     * @param options              Validation options.
+     * @throws PayloadTooLargeException if the statements exceed the maximal size
+     * @throws MalformedDataException   if the statements cannot be parsed
+     */
+    public ValidationReport validateCandidate(InputStream data, Lang lang,
+                                              URI vocabularyContextUri, boolean union,
+                                              ValidationOptions options) {
+        if (union && vocabularyContextUri == null) {
+            throw new ValidationException(
+                "Vocabulary context must be specified to validate the union with its statements.");
+        }
+        final Model candidate = ModelFactory.createDefaultModel();
+        final LimitedInputStream limited =
+            new LimitedInputStream(data, validationConf.getMaxCandidateBytes());
+        try {
+            final RDFParserBuilder parser = RDFParser.create().source(limited).lang(lang);
+            if (vocabularyContextUri != null) {
+                parser.base(vocabularyContextUri.toString());
+            }
+            parser.parse(candidate);
+        } catch (RiotException e) {
+            if (limited.isExceeded()) {
+                throw new PayloadTooLargeException("Candidate statements exceed the limit of "
+                    + validationConf.getMaxCandidateBytes() + " bytes.");
+            }
+            throw new MalformedDataException("Invalid " + lang.getLabel() + " data: "
+                + e.getMessage());
+        }
+        final VocabularyContext vocabularyContext =
+            union ? vocabularyService.findRequired(vocabularyContextUri) : null;
+        return repositoryService.validateCandidate(candidate, vocabularyContext, options);
+    }
+
     private Workspace getWorkspace(URI workspaceUri) {
         final Workspace workspace = repositoryService.findRequired(workspaceUri);
         if (workspace == null) {
@@ -148,11 +256,7 @@ public class WorkspaceService {
             return vocabularyContextUri;
         }
 
-        if (vocabularyService.getVocabulariesAsContextDtos().stream()
-            .noneMatch(vc ->
-                vc.getBasedOnVersion().equals(vocabularyUri)
-            )
-        ) {
+        if (!vocabularyService.isVocabularyPublished(vocabularyUri)) {
             if (vocabularyContextDto.getLabel() == null) {
                 throw NotFoundException.create("Vocabulary", vocabularyUri);
             }
@@ -179,6 +283,7 @@ public class WorkspaceService {
         vocabularyService.createContext(vocabularyContext, vocabularyContextDto);
         workspace.addRefersToVocabularyContexts(vocabularyContext);
         repositoryService.update(workspace);
+        workspaceVocabularyIndex.add(workspace, vocabularyContext);
         return vocabularyContext.getUri();
     }
 
@@ -190,6 +295,7 @@ public class WorkspaceService {
         vocabularyService.loadContext(vocabularyContext);
         workspace.addRefersToVocabularyContexts(vocabularyContext);
         repositoryService.update(workspace);
+        workspaceVocabularyIndex.add(workspace, vocabularyContext);
         final URI vocabularyContextUri = vocabularyContext.getUri();
         log.info("Found attachments {}", vocabularyContext.getAttachments());
         Collection<TrackableContext> attachmentContexts = new HashSet<>();
@@ -212,16 +318,24 @@ public class WorkspaceService {
      * @return list of workspaces
      */
     public Collection<Workspace> getWorkspacesWithReadWriteVocabulary(final URI vocabularyIri) {
-        return repositoryService.findAll().stream()
-            .filter(ws -> ws.getVocabularyContexts().stream()
-                .anyMatch(vc -> vc.getBasedOnVersion().equals(vocabularyIri))
-            ).collect(Collectors.toList());
+        return workspaceVocabularyIndex.getContexts(vocabularyIri).keySet().stream()
+            .map(repositoryService::find)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
     }
 
     public List<Workspace> findAllInferred() {
         return repositoryService.findAllInferred();
     }
 
+    public List<Workspace> findAllInferred(URI after, Integer limit) {
+        return repositoryService.findAllInferred(after, limit);
+    }
+
+    public List<WorkspaceDto> findAllAsDtos(URI after, Integer limit) {
+        return repositoryService.findAllAsDtos(after, limit);
+    }
+
     /**
      * Removes vocabulary context from given workspace.
      *
@@ -241,6 +355,7 @@ public class WorkspaceService {
 
         workspace.getVocabularyContexts().remove(vocabularyContext);
         repositoryService.update(workspace);
+        workspaceVocabularyIndex.remove(workspace, vocabularyContext);
 
         return vocabularyContext;
     }
@@ -249,8 +364,10 @@ public class WorkspaceService {
     private void removeAllVocabularies(URI workspaceId) {
         Workspace workspace = repositoryService.findRequired(workspaceId);
         workspace.getVocabularyContexts().forEach(vocabularyService::remove);
+        final Set<VocabularyContext> removed = new HashSet<>(workspace.getVocabularyContexts());
         workspace.getVocabularyContexts().clear();
         repositoryService.update(workspace);
+        removed.forEach(vc -> workspaceVocabularyIndex.remove(workspace, vc));
     }
 
     /**
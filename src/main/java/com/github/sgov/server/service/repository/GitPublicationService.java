@@ -5,12 +5,11 @@ import static com.github.sgov.server.util.Vocabulary.DATA_DESCRIPTION_NAMESPACE;
 import static com.github.sgov.server.util.Vocabulary.SLOVNIK_GOV_CZ;
 import static com.github.sgov.server.util.Vocabulary.VANN_NAMESPACE;
 
-import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.AttachmentContext;
 import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.persistence.RepositoryAccess;
 import com.github.sgov.server.util.AttachmentFolder;
-import com.github.sgov.server.util.IdnUtils;
 import com.github.sgov.server.util.Utils;
 import com.github.sgov.server.util.Vocabulary;
 import com.github.sgov.server.util.VocabularyFolder;
@@ -19,7 +18,6 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
-import java.net.URISyntaxException;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -32,7 +30,6 @@ import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
-import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
 import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.WriterConfig;
 import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
@@ -50,14 +47,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class GitPublicationService {
 
     public static final String NS_TERMIT = "http://onto.fel.cvut.cz/ontologies/application/termit";
-    private final RepositoryConf repositoryConf;
+    private final RepositoryAccess repositoryAccess;
 
     /**
      * Creates a new repository service.
      */
     @Autowired
-    public GitPublicationService(final RepositoryConf repositoryConf) {
-        this.repositoryConf = repositoryConf;
+    public GitPublicationService(final RepositoryAccess repositoryAccess) {
+        this.repositoryAccess = repositoryAccess;
     }
 
     /**
@@ -114,10 +111,8 @@ public class GitPublicationService {
     public void storeContext(final VocabularyContext context,
                              final VocabularyFolder folder) {
         try {
-            final SPARQLRepository workspaceRepo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection cWorkspaceRepo = workspaceRepo.getConnection();
+            final RepositoryConnection cWorkspaceRepo =
+                repositoryAccess.getQueryRepository().getConnection();
 
             final String versionUrl =
                 context.getBasedOnVersion().toString();
@@ -182,7 +177,7 @@ public class GitPublicationService {
 
             conGitSsp.close();
             cWorkspaceRepo.close();
-        } catch (URISyntaxException | IOException e) {
+        } catch (IOException e) {
             throw new SGoVException(e);
         }
     }
@@ -197,10 +192,8 @@ public class GitPublicationService {
     public void storeContext(final AttachmentContext context,
                              final AttachmentFolder folder) {
         try {
-            final SPARQLRepository workspaceRepo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection cWorkspaceRepo = workspaceRepo.getConnection();
+            final RepositoryConnection cWorkspaceRepo =
+                repositoryAccess.getQueryRepository().getConnection();
 
             final String versionUrl =
                 context.getBasedOnVersion().toString();
@@ -230,7 +223,7 @@ public class GitPublicationService {
 
             conGitSsp.close();
             cWorkspaceRepo.close();
-        } catch (final URISyntaxException | IOException e) {
+        } catch (final IOException e) {
             throw new SGoVException(e);
         }
     }
@@ -0,0 +1,235 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.exception.ValidationException;
+import com.github.sgov.server.persistence.RepositoryAccess;
+import com.github.sgov.server.util.SingleFlight;
+import com.github.sgov.server.util.Vocabulary;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory catalog of published vocabularies and their labels.
+ *
+ * <p>The catalog is loaded by a single query and kept as an immutable {@link Snapshot}, which is
+ * replaced once it is older than {@link RepositoryConf#getVocabularyCatalogTtl()} or after
+ * {@link #invalidate()}. Concurrent loads share one query. Vocabularies published since the
+ * snapshot was loaded are missing in it, so callers deciding whether a vocabulary is published
+ * confirm a miss in the repository, see {@link VocabularyLookup#isPublished(java.net.URI)}.
+ */
+@Slf4j
+@Component
+public class VocabularyCatalog {
+
+    private final RepositoryConf repositoryConf;
+
+    private final RepositoryAccess repositoryAccess;
+
+    private final SingleFlight<Long, Snapshot> loads = new SingleFlight<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public VocabularyCatalog(RepositoryConf repositoryConf, RepositoryAccess repositoryAccess) {
+        this.repositoryConf = repositoryConf;
+        this.repositoryAccess = repositoryAccess;
+    }
+
+    /**
+     * Returns the current snapshot of the catalog, loading it if it expired or was invalidated.
+     */
+    public Snapshot getSnapshot() {
+        final Snapshot current = peekSnapshot();
+        if (current != null) {
+            return current;
+        }
+        final long loadedGeneration = generation.get();
+        return loads.execute(loadedGeneration, () -> {
+            final Snapshot loaded = load();
+            // a snapshot loaded while being invalidated may miss the latest publication
+            if (generation.get() == loadedGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Returns the current snapshot of the catalog without loading it.
+     *
+     * @return snapshot, or null if it expired or was invalidated
+     */
+    public Snapshot peekSnapshot() {
+        final Snapshot current = snapshot;
+        return current != null && current.expires > System.currentTimeMillis() ? current : null;
+    }
+
+    /**
+     * Drops the current snapshot, so that the catalog is loaded again when next used.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        final List<Entry> entries = new ArrayList<>();
+        try (RepositoryConnection connection =
+                 repositoryAccess.getQueryRepository().getConnection()) {
+            connection.prepareTupleQuery("SELECT DISTINCT ?g ?label WHERE "
+                + "{ GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
+                + " ?g <" + DCTERMS.TITLE + "> ?label . }}")
+                .evaluate().forEach(res -> {
+                    final Literal label = (Literal) res.getValue("label");
+                    entries.add(new Entry(URI.create(res.getValue("g").stringValue()),
+                        label.stringValue(), label.getLanguage().orElse("")));
+                });
+        }
+        log.debug("Loaded catalog of {} published vocabulary labels", entries.size());
+        return new Snapshot(entries,
+            System.currentTimeMillis() + repositoryConf.getVocabularyCatalogTtl().toMillis());
+    }
+
+    /**
+     * Label of a published vocabulary in a single language.
+     */
+    public static final class Entry {
+
+        private static final char KEY_SEPARATOR = '\n';
+
+        private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::getLabel)
+            .thenComparing(e -> e.getVocabulary().toString());
+
+        private final URI vocabulary;
+
+        private final String label;
+
+        private final String language;
+
+        Entry(URI vocabulary, String label, String language) {
+            this.vocabulary = vocabulary;
+            this.label = label;
+            this.language = language;
+        }
+
+        public URI getVocabulary() {
+            return vocabulary;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Returns the language tag of the label, an empty string if it has none.
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        /**
+         * Returns the key of the entry, in the order of which entries are listed.
+         */
+        public String getKey() {
+            return key(label, vocabulary);
+        }
+
+        /**
+         * Returns the key of the entry with the given label of the vocabulary.
+         */
+        public static String key(String label, URI vocabulary) {
+            return label + KEY_SEPARATOR + vocabulary;
+        }
+    }
+
+    /**
+     * Immutable state of the catalog at the time it was loaded.
+     */
+    public static final class Snapshot {
+
+        private final List<Entry> entries;
+
+        private final Map<URI, Map<String, String>> labels = new HashMap<>();
+
+        private final long expires;
+
+        Snapshot(List<Entry> entries, long expires) {
+            final List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Entry.ORDER);
+            this.entries = Collections.unmodifiableList(sorted);
+            this.expires = expires;
+            sorted.forEach(e -> labels.computeIfAbsent(e.getVocabulary(), v -> new HashMap<>())
+                .putIfAbsent(e.getLanguage(), e.getLabel()));
+        }
+
+        /**
+         * Tells whether the vocabulary is published.
+         */
+        public boolean contains(URI vocabulary) {
+            return labels.containsKey(vocabulary);
+        }
+
+        /**
+         * Returns the label of a published vocabulary in the given language, or null.
+         */
+        public String getLabel(URI vocabulary, String language) {
+            return labels.getOrDefault(vocabulary, Collections.emptyMap()).get(language);
+        }
+
+        /**
+         * Returns labels of all published vocabularies sorted by the label and the vocabulary
+         * IRI, a vocabulary is listed once per label.
+         *
+         * @param language language of the labels, all labels if null
+         */
+        public List<Entry> getEntries(String language) {
+            if (language == null) {
+                return entries;
+            }
+            return entries.stream()
+                .filter(e -> e.getLanguage().equals(language))
+                .collect(Collectors.toList());
+        }
+
+        /**
+         * Returns a page of {@link #getEntries(String)}.
+         *
+         * @param language language of the labels, all labels if null
+         * @param after    key of the entry the page follows, see {@link Entry#getKey()}, the
+         *                 first page if null
+         * @param limit    maximum number of entries, all entries if null
+         */
+        public List<Entry> getEntries(String language, String after, Integer limit) {
+            final Entry last = after == null ? null : parseKey(after);
+            return getEntries(language).stream()
+                .filter(e -> last == null || Entry.ORDER.compare(e, last) > 0)
+                .limit(limit == null ? Long.MAX_VALUE : limit)
+                .collect(Collectors.toList());
+        }
+
+        private static Entry parseKey(String key) {
+            final int separator = key.lastIndexOf(Entry.KEY_SEPARATOR);
+            try {
+                return new Entry(URI.create(key.substring(separator + 1)),
+                    key.substring(0, separator), "");
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new ValidationException("Invalid vocabulary key " + key + ".");
+            }
+        }
+    }
+}
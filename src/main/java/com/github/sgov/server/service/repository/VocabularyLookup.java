@@ -0,0 +1,82 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.persistence.RepositoryAccess;
+import com.github.sgov.server.util.Vocabulary;
+import java.net.URI;
+import java.util.Optional;
+import java.util.function.Function;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Existence checks of a single vocabulary, each answered by one ASK or LIMIT 1 query keyed by
+ * the vocabulary IRI.
+ *
+ * <p>They are used when {@link VocabularyCatalog} or {@link WorkspaceVocabularyIndex} is not
+ * loaded, so that a yes/no question does not load all vocabularies or workspaces.
+ */
+@Component
+public class VocabularyLookup {
+
+    private final RepositoryAccess repositoryAccess;
+
+    @Autowired
+    public VocabularyLookup(RepositoryAccess repositoryAccess) {
+        this.repositoryAccess = repositoryAccess;
+    }
+
+    /**
+     * Tells whether the vocabulary is published, with the same criteria as
+     * {@link VocabularyCatalog}.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return true if the vocabulary is published
+     */
+    public boolean isPublished(URI vocabulary) {
+        return query(connection -> {
+            final BooleanQuery query = connection.prepareBooleanQuery("ASK WHERE "
+                + "{ GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
+                + " ?g <" + DCTERMS.TITLE + "> ?label . }}");
+            query.setBinding("g", iri(connection, vocabulary));
+            return query.evaluate();
+        });
+    }
+
+    /**
+     * Finds a vocabulary context of some workspace based on the vocabulary.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return IRI of the vocabulary context, empty if the vocabulary is in no workspace
+     */
+    public Optional<URI> findWorkspaceContext(URI vocabulary) {
+        return query(connection -> {
+            final TupleQuery query = connection.prepareTupleQuery("SELECT ?context WHERE {"
+                + "?workspace a <" + Vocabulary.s_c_metadatovy_kontext + "> ;"
+                + " <" + Vocabulary.s_p_odkazuje_na_kontext + "> ?context ."
+                + " ?context <" + Vocabulary.s_p_vychazi_z_verze + "> ?vocabulary . } LIMIT 1");
+            query.setBinding("vocabulary", iri(connection, vocabulary));
+            try (TupleQueryResult result = query.evaluate()) {
+                return result.hasNext()
+                    ? Optional.of(URI.create(result.next().getValue("context").stringValue()))
+                    : Optional.empty();
+            }
+        });
+    }
+
+    private static IRI iri(RepositoryConnection connection, URI uri) {
+        return connection.getValueFactory().createIRI(uri.toString());
+    }
+
+    private <T> T query(Function<RepositoryConnection, T> query) {
+        try (RepositoryConnection connection =
+                 repositoryAccess.getQueryRepository().getConnection()) {
+            return query.apply(connection);
+        }
+    }
+}
@@ -3,22 +3,22 @@ package com.github.sgov.server.service.repository;
 import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.controller.dto.*;
 import com.github.sgov.server.dao.VocabularyDao;
-import com.github.sgov.server.dao.WorkspaceDao;
 import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.TrackableContext;
 import com.github.sgov.server.model.VocabularyContext;
-import com.github.sgov.server.util.IdnUtils;
+import com.github.sgov.server.persistence.RepositoryAccess;
+import com.github.sgov.server.util.SingleFlight;
 import com.github.sgov.server.util.Vocabulary;
 import com.github.sgov.server.util.VocabularyCreationHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
-import org.eclipse.rdf4j.repository.http.HTTPRepository;
-import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
 import org.eclipse.rdf4j.rio.ParserConfig;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +28,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.Validator;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -43,26 +42,41 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
 
     private final RepositoryConf repositoryConf;
 
+    private final RepositoryAccess repositoryAccess;
+
     private final VocabularyDao vocabularyDao;
 
-    private final WorkspaceDao workspaceDao;
+    private final WorkspaceVocabularyIndex workspaceVocabularyIndex;
 
     private final AttachmentRepositoryService attachmentRepositoryService;
 
+    private final VocabularyCatalog vocabularyCatalog;
+
+    private final VocabularyLookup vocabularyLookup;
+
+    private final SingleFlight<String, List<VocabularyWithWorkspacesDto>> vocabularyListings =
+        new SingleFlight<>();
+
     /**
      * Creates a new repository service.
      */
     @Autowired
     public VocabularyRepositoryService(@Qualifier("validatorFactoryBean") Validator validator,
                                        RepositoryConf repositoryConf,
+                                       RepositoryAccess repositoryAccess,
                                        VocabularyDao vocabularyDao,
-                                       WorkspaceDao workspaceDao,
-                                       AttachmentRepositoryService attachmentRepositoryService) {
+                                       WorkspaceVocabularyIndex workspaceVocabularyIndex,
+                                       AttachmentRepositoryService attachmentRepositoryService,
+                                       VocabularyCatalog vocabularyCatalog,
+                                       VocabularyLookup vocabularyLookup) {
         super(validator);
         this.repositoryConf = repositoryConf;
+        this.repositoryAccess = repositoryAccess;
         this.vocabularyDao = vocabularyDao;
-        this.workspaceDao = workspaceDao;
+        this.workspaceVocabularyIndex = workspaceVocabularyIndex;
         this.attachmentRepositoryService = attachmentRepositoryService;
+        this.vocabularyCatalog = vocabularyCatalog;
+        this.vocabularyLookup = vocabularyLookup;
     }
 
     /**
@@ -72,12 +86,9 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
      * @return a set of transitive imports.
      */
     public Set<URI> getTransitiveImports(final URI uri) {
-        try {
-            Set<URI> contexts = new HashSet<>();
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection connection = repo.getConnection();
+        Set<URI> contexts = new HashSet<>();
+        try (RepositoryConnection connection =
+                 repositoryAccess.getQueryRepository().getConnection()) {
             final TupleQuery query = connection
                 .prepareTupleQuery("SELECT DISTINCT ?v WHERE {GRAPH ?uri {?uri ?imports+ ?v}}");
             query.setBinding("uri", connection.getValueFactory().createIRI(uri.toString()));
@@ -86,11 +97,8 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
 
             query.evaluate().forEach(b ->
                 contexts.add(URI.create(b.getValue("v").stringValue())));
-            connection.close();
-            return contexts;
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
         }
+        return contexts;
     }
 
 
@@ -99,89 +107,119 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
     }
 
     /**
-     * Finds all vocabularies which are published with optional label in the given language.
+     * Finds all vocabularies which are published with optional label in the given language, see
+     * {@link VocabularyCatalog}.
      *
      * @param lang language to fetch the label in
      * @return vocabularies in the form of vocabulary context
      */
     public List<VocabularyDto> getVocabulariesAsContextDtos(String lang) {
-        try {
-            List<VocabularyDto> contexts = new ArrayList<>();
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection connection = repo.getConnection();
-            TupleQuery query = connection
-                .prepareTupleQuery("SELECT DISTINCT ?g ?label WHERE "
-                    + "{ GRAPH ?g {?g a <" + Vocabulary.s_c_slovnik + "> . "
-                    + " ?g <" + DCTERMS.TITLE + "> ?label . "
-                    + ((lang != null) ? "FILTER (lang(?label)='" + lang + "')" : "")
-                    + " }} ORDER BY ?label");
-            final Set<URI> uris = getWriteLockedVocabularies();
-            query.evaluate().forEach(res -> {
-                final VocabularyDto vDto = new VocabularyDto();
-                final URI uri = URI.create(res.getValue("g").stringValue());
-                vDto.setUri(uri);
-                vDto.setBasedOnVersion(uri);
+        return toDtos(vocabularyCatalog.getSnapshot().getEntries(lang), true);
+    }
+
+    private List<VocabularyDto> toDtos(List<VocabularyCatalog.Entry> entries,
+                                       boolean withReadonly) {
+        final List<VocabularyDto> contexts = new ArrayList<>();
+        final Set<URI> uris = withReadonly ? getWriteLockedVocabularies() : null;
+        entries.forEach(entry -> {
+            final VocabularyDto vDto = new VocabularyDto();
+            final URI uri = entry.getVocabulary();
+            vDto.setUri(uri);
+            vDto.setBasedOnVersion(uri);
+            if (withReadonly) {
                 vDto.setReadonly(uris.contains(uri));
-                if (res.hasBinding("label")) {
-                    vDto.setLabel(res.getValue("label").stringValue());
-                }
-                contexts.add(vDto);
-            });
-            connection.close();
-            return contexts;
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
-        }
+            }
+            vDto.setLabel(entry.getLabel());
+            contexts.add(vDto);
+        });
+        return contexts;
     }
 
     /**
      * Finds all vocabularies which are published with optional label in the given language.
-     * Each vocabulary is enriched with list of workspaces the vocabulary is in.
+     * Each vocabulary is enriched with list of workspaces the vocabulary is in. Concurrent calls
+     * for the same language share a single computation.
      *
      * @param lang language to fetch the label in
      * @return vocabularies in the form of vocabulary context
      */
     public List<VocabularyWithWorkspacesDto> getVocabulariesWithWorkspacesAsDtos(String lang) {
-        List<VocabularyWithWorkspacesDto> contexts = new ArrayList<>();
-        try {
-            final SPARQLRepository repo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl()));
-            final RepositoryConnection connection = repo.getConnection();
-            getVocabulariesAsContextDtos(lang).forEach(vocabularyDto -> {
-                final VocabularyWithWorkspacesDto vWDto =
-                    new VocabularyWithWorkspacesDto(vocabularyDto);
-                connection.prepareTupleQuery("SELECT DISTINCT ?uri ?label WHERE {"
-                    + "?uri a <" + Vocabulary.s_c_metadatovy_kontext + "> ;"
-                    + " <" + DCTERMS.TITLE + "> ?label ;"
-                    + " <" + Vocabulary.s_p_odkazuje_na_kontext + "> ["
-                    + "  <" + Vocabulary.s_p_vychazi_z_verze + "> <" + vocabularyDto.getUri() + ">"
-                    + " ] . }").evaluate().forEach(res -> {
-                        URI wsUri = URI.create(res.getValue("uri").stringValue());
-                        String label = res.getValue("label").stringValue();
-                        vWDto.addInWorkspace(new WorkspaceDto(wsUri, label));
-                    }
-                );
-                contexts.add(vWDto);
-            });
-            connection.close();
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
+        return vocabularyListings.execute(String.valueOf(lang), () -> withWorkspaces(
+            getVocabulariesAsContextDtos(lang), getWorkspacesByVocabulary(null)));
+    }
+
+    /**
+     * Finds a page of published vocabularies with optional label in the given language, sorted
+     * by the label and the vocabulary IRI. Write-lock and workspaces are looked up only for the
+     * vocabularies on the page and only if requested.
+     *
+     * @param lang           language to fetch the label in
+     * @param after          key of the vocabulary the page follows, see
+     *                       {@link VocabularyCatalog.Entry#getKey()}, the first page if null
+     * @param limit          maximum number of vocabularies, all vocabularies if null
+     * @param withReadonly   whether to mark write-locked vocabularies as read-only
+     * @param withWorkspaces whether to list the workspaces each vocabulary is in
+     * @return vocabularies in the form of vocabulary context
+     */
+    public List<VocabularyWithWorkspacesDto> getVocabulariesWithWorkspacesAsDtos(
+        String lang, String after, Integer limit, boolean withReadonly, boolean withWorkspaces) {
+        final List<VocabularyDto> vocabularies = toDtos(
+            vocabularyCatalog.getSnapshot().getEntries(lang, after, limit), withReadonly);
+        if (!withWorkspaces || vocabularies.isEmpty()) {
+            return withWorkspaces(vocabularies, Collections.emptyMap());
         }
-        return contexts;
+        return withWorkspaces(vocabularies, getWorkspacesByVocabulary(vocabularies.stream()
+            .map(VocabularyDto::getUri)
+            .collect(Collectors.toSet())));
+    }
+
+    private static List<VocabularyWithWorkspacesDto> withWorkspaces(
+        List<VocabularyDto> vocabularies, Map<URI, List<WorkspaceDto>> workspaces) {
+        return vocabularies.stream().map(vocabularyDto -> {
+            final VocabularyWithWorkspacesDto vWDto =
+                new VocabularyWithWorkspacesDto(vocabularyDto);
+            workspaces.getOrDefault(vocabularyDto.getUri(), Collections.emptyList())
+                .forEach(vWDto::addInWorkspace);
+            return vWDto;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds workspaces referencing each vocabulary in a single query.
+     *
+     * @param vocabularies vocabularies to find the workspaces of, all vocabularies if null
+     * @return map from vocabulary IRI to the workspaces with a context based on it
+     */
+    private Map<URI, List<WorkspaceDto>> getWorkspacesByVocabulary(
+        Collection<URI> vocabularies) {
+        final Map<URI, List<WorkspaceDto>> workspaces = new HashMap<>();
+        final String values = vocabularies == null ? "" : vocabularies.stream()
+            .map(v -> "<" + v + ">")
+            .collect(Collectors.joining(" ", " VALUES ?vocabulary { ", " }"));
+        try (RepositoryConnection connection =
+                 repositoryAccess.getQueryRepository().getConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(
+                 "SELECT DISTINCT ?vocabulary ?uri ?label WHERE {"
+                     + "?uri a <" + Vocabulary.s_c_metadatovy_kontext + "> ;"
+                     + " <" + DCTERMS.TITLE + "> ?label ;"
+                     + " <" + Vocabulary.s_p_odkazuje_na_kontext + "> ["
+                     + "  <" + Vocabulary.s_p_vychazi_z_verze + "> ?vocabulary"
+                     + " ] ." + values + " }").evaluate()) {
+            result.forEach(res -> workspaces.computeIfAbsent(
+                URI.create(res.getValue("vocabulary").stringValue()),
+                v -> new ArrayList<>()).add(new WorkspaceDto(
+                    URI.create(res.getValue("uri").stringValue()),
+                    res.getValue("label").stringValue())));
+        }
+        return workspaces;
     }
 
     /**
      * Returns the list of vocabularies which are write-locked (i.e. they are writable in some
-     * workspace).
+     * workspace), see {@link WorkspaceVocabularyIndex}.
      */
     private Set<URI> getWriteLockedVocabularies() {
-        final Set<URI> result = new HashSet<>();
-        workspaceDao.findAll().forEach(w -> w.getAllAttachmentContexts()
-            .forEach(vc -> result.add(vc.getBasedOnVersion())));
-        return result;
+        return workspaceVocabularyIndex.getVocabularies();
     }
 
     /**
@@ -190,16 +228,24 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
      * @param vocabularyUri Uri of the vocabulary.
      */
     public void verifyVocabularyNotInAnyWorkspace(URI vocabularyUri) {
-        this.findAll().stream().filter(
-            vc -> vc.getBasedOnVersion().equals(vocabularyUri)
-        ).findAny().ifPresent(
-            vc -> {
-                throw new SGoVException(String.format(
-                    "Vocabulary %s already exists in a workspace within context %s.",
-                    vocabularyUri,
-                    vc.getUri()));
-            }
-        );
+        findWorkspaceContext(vocabularyUri).ifPresent(vc -> {
+            throw new SGoVException(String.format(
+                "Vocabulary %s already exists in a workspace within context %s.",
+                vocabularyUri,
+                vc));
+        });
+    }
+
+    /**
+     * Finds a vocabulary context based on the given vocabulary, from
+     * {@link WorkspaceVocabularyIndex} if loaded, otherwise by a single lookup query.
+     */
+    private Optional<URI> findWorkspaceContext(URI vocabularyUri) {
+        final Map<URI, URI> contexts = workspaceVocabularyIndex.peekContexts(vocabularyUri);
+        if (contexts == null) {
+            return vocabularyLookup.findWorkspaceContext(vocabularyUri);
+        }
+        return contexts.values().stream().findAny();
     }
 
     /**
@@ -237,21 +283,23 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
      * @return True if the vocabulary exists in a workspace.
      */
     private boolean existsInAWorkspace(URI vocabularyUri) {
-        return this.findAll().stream().anyMatch(
-            vc -> vc.getBasedOnVersion().equals(vocabularyUri)
-        );
+        return findWorkspaceContext(vocabularyUri).isPresent();
     }
 
     /**
-     * Tests is given vocabulary is published.
+     * Tests is given vocabulary is published, from {@link VocabularyCatalog} if loaded. As the
+     * catalog may miss vocabularies published since it was loaded, a miss is confirmed by a single
+     * ASK query, which is also used if the catalog is not loaded.
      *
      * @param vocabularyUri Uri of the vocabulary.
      * @return True if the vocabulary is published.
      */
-    private boolean isVocabularyPublished(URI vocabularyUri) {
-        return getVocabulariesAsContextDtos(null).stream().anyMatch(
-            v -> v.getBasedOnVersion().equals(vocabularyUri)
-        );
+    public boolean isVocabularyPublished(URI vocabularyUri) {
+        final VocabularyCatalog.Snapshot snapshot = vocabularyCatalog.peekSnapshot();
+        if (snapshot != null && snapshot.contains(vocabularyUri)) {
+            return true;
+        }
+        return vocabularyLookup.isPublished(vocabularyUri);
     }
 
     /**
@@ -261,18 +309,17 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
      */
     private void populateContext(final String uri,
                                  final Iterable<? extends Statement> statements) {
-        final HTTPRepository workspaceRepository = new HTTPRepository(
-            repositoryConf.getUrl());
-        final RepositoryConnection connection2 = workspaceRepository.getConnection();
-        connection2.setParserConfig(
-            new ParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true));
-
-        connection2.begin();
-        final ValueFactory f = connection2.getValueFactory();
-        connection2.add(statements,
-            f.createIRI(uri));
-        connection2.commit();
-        connection2.close();
+        try (RepositoryConnection connection2 =
+                 repositoryAccess.getHttpRepository().getConnection()) {
+            connection2.setParserConfig(
+                new ParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true));
+
+            connection2.begin();
+            final ValueFactory f = connection2.getValueFactory();
+            connection2.add(statements,
+                f.createIRI(uri));
+            connection2.commit();
+        }
     }
 
     /**
@@ -285,11 +332,7 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
                               final VocabularyContextDto vocabularyContextDto) {
         vocabularyDao.persist(vocabularyContext);
         final Set<Statement> statements = new HashSet<>();
-        final HTTPRepository workspaceRepository = new HTTPRepository(
-            repositoryConf.getUrl());
-        final RepositoryConnection connection2 = workspaceRepository.getConnection();
-
-        final ValueFactory f = connection2.getValueFactory();
+        final ValueFactory f = SimpleValueFactory.getInstance();
         final IRI vocabulary = f.createIRI(vocabularyContext
             .getBasedOnVersion().toString());
 
@@ -302,7 +345,6 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
         );
 
         populateContext(vocabularyContext.getUri().toString(), statements);
-        connection2.close();
     }
 
     private String getLoadContextString(final TrackableContext context) {
@@ -332,21 +374,13 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
             updateQuery.append(context.getUri().toString());
             updateQuery.append(">;\n");
         }
-        try {
-            final SPARQLRepository updateRepo =
-                    new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                            repositoryConf.getUrl() + "/statements"));
-            try (final RepositoryConnection connection = updateRepo.getConnection()) {
-                log.info("Loading contexts from " + repositoryConf.getUrl());
-                connection.begin();
-                Update update = connection.prepareUpdate(QueryLanguage.SPARQL, updateQuery.toString());
-                update.execute();
-                connection.commit();
-                connection.close();
-                updateRepo.shutDown();
-            }
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
+        try (final RepositoryConnection connection =
+                 repositoryAccess.getUpdateRepository().getConnection()) {
+            log.info("Loading contexts from " + repositoryConf.getUrl());
+            connection.begin();
+            Update update = connection.prepareUpdate(QueryLanguage.SPARQL, updateQuery.toString());
+            update.execute();
+            connection.commit();
         }
     }
 
@@ -355,64 +389,17 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
         for (final TrackableContext context : contexts) {
             updateQuery.append(getLoadContextString(context));
         }
-        try {
-            final SPARQLRepository updateRepo =
-                    new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                            repositoryConf.getUrl() + "/statements"));
-            final SPARQLRepository repo =
-                    new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                            repositoryConf.getUrl()));
-            try (final RepositoryConnection connection = updateRepo.getConnection()) {
-                log.info("Loading contexts from " + repositoryConf.getUrl());
-                connection.begin();
-                Update update = connection.prepareUpdate(QueryLanguage.SPARQL, updateQuery.toString());
-                update.execute();
-                connection.commit();
-            }
-            try (final RepositoryConnection connection = repo.getConnection()) {
-                for (final TrackableContext context : contexts) {
-                    final String iri = context.getBasedOnVersion().toString();
-                    if (context instanceof VocabularyContext) {
-                        final VocabularyContext vocabularyContext = (VocabularyContext) context;
-                        final GraphQueryResult r = loadAttachments(iri, connection);
-                        final Set<Statement> set = r.stream().collect(Collectors.toSet());
-                        final IRI hasAttachment =
-                                repo.getValueFactory().createIRI(Vocabulary.s_p_ma_prilohu);
-                        final Set<URI> attachments = set.stream()
-                                .filter(s -> s.getPredicate().equals(hasAttachment))
-                                .map(s -> URI.create(s.getObject().stringValue()))
-                                .collect(Collectors.toSet());
-                        vocabularyContext.setAttachments(attachments);
-                    }
-                }
-            }
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
+        final Repository updateRepo = repositoryAccess.getUpdateRepository();
+        final Repository repo = repositoryAccess.getQueryRepository();
+        try (final RepositoryConnection connection = updateRepo.getConnection()) {
+            log.info("Loading contexts from " + repositoryConf.getUrl());
+            connection.begin();
+            Update update = connection.prepareUpdate(QueryLanguage.SPARQL, updateQuery.toString());
+            update.execute();
+            connection.commit();
         }
-    }
-
-    /**
-     * Reloads the given vocabulary context from the source endpoint.
-     *
-     * @param context the vocabulary context to be loaded.
-     */
-    @Transactional
-    public void loadContext(final TrackableContext context) {
-        try {
-            final SPARQLRepository updateRepo =
-                new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                    repositoryConf.getUrl() + "/statements"));
-            final SPARQLRepository repo =
-                    new SPARQLRepository(IdnUtils.convertUnicodeUrlToAscii(
-                            repositoryConf.getUrl()));
-            try (final RepositoryConnection connection = updateRepo.getConnection()) {
-                String query = getLoadContextString(context);
-                connection.begin();
-                Update update = connection.prepareUpdate(QueryLanguage.SPARQL, query);
-                update.execute();
-                connection.commit();
-            }
-            try (final RepositoryConnection connection = repo.getConnection()) {
+        try (final RepositoryConnection connection = repo.getConnection()) {
+            for (final TrackableContext context : contexts) {
                 final String iri = context.getBasedOnVersion().toString();
                 if (context instanceof VocabularyContext) {
                     final VocabularyContext vocabularyContext = (VocabularyContext) context;
@@ -427,8 +414,39 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
                     vocabularyContext.setAttachments(attachments);
                 }
             }
-        } catch (URISyntaxException e) {
-            throw new SGoVException(e);
+        }
+    }
+
+    /**
+     * Reloads the given vocabulary context from the source endpoint.
+     *
+     * @param context the vocabulary context to be loaded.
+     */
+    @Transactional
+    public void loadContext(final TrackableContext context) {
+        final Repository updateRepo = repositoryAccess.getUpdateRepository();
+        final Repository repo = repositoryAccess.getQueryRepository();
+        try (final RepositoryConnection connection = updateRepo.getConnection()) {
+            String query = getLoadContextString(context);
+            connection.begin();
+            Update update = connection.prepareUpdate(QueryLanguage.SPARQL, query);
+            update.execute();
+            connection.commit();
+        }
+        try (final RepositoryConnection connection = repo.getConnection()) {
+            final String iri = context.getBasedOnVersion().toString();
+            if (context instanceof VocabularyContext) {
+                final VocabularyContext vocabularyContext = (VocabularyContext) context;
+                final GraphQueryResult r = loadAttachments(iri, connection);
+                final Set<Statement> set = r.stream().collect(Collectors.toSet());
+                final IRI hasAttachment =
+                        repo.getValueFactory().createIRI(Vocabulary.s_p_ma_prilohu);
+                final Set<URI> attachments = set.stream()
+                        .filter(s -> s.getPredicate().equals(hasAttachment))
+                        .map(s -> URI.create(s.getObject().stringValue()))
+                        .collect(Collectors.toSet());
+                vocabularyContext.setAttachments(attachments);
+            }
         }
     }
 
@@ -459,6 +477,7 @@ public class VocabularyRepositoryService extends BaseRepositoryService<Vocabular
         removeAllAttachments(instance);
         clearContext(instance.getChangeTrackingContext().getUri());
         vocabularyDao.clearApplicationContexts(instance.getUri());
+        vocabularyDao.clearValidationReports(instance.getUri());
         super.remove(instance);
         clearContext(instance.getUri());
     }
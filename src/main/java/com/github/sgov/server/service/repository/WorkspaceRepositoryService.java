@@ -1,12 +1,13 @@
 package com.github.sgov.server.service.repository;
 
+import com.github.sgov.server.controller.dto.WorkspaceDto;
 import com.github.sgov.server.dao.WorkspaceDao;
 import com.github.sgov.server.exception.NotFoundException;
-import com.github.sgov.server.exception.SGoVException;
 import com.github.sgov.server.model.AbstractEntity;
 import com.github.sgov.server.model.VocabularyContext;
 import com.github.sgov.server.model.Workspace;
-import java.io.IOException;
+import com.github.sgov.server.validation.ValidationListener;
+import com.github.sgov.server.validation.ValidationOptions;
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.validation.Validator;
+import org.apache.jena.rdf.model.Model;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -28,15 +30,19 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
 
     private final WorkspaceDao workspaceDao;
 
+    private final WorkspaceVocabularyIndex workspaceVocabularyIndex;
+
     /**
      * Creates a new repository service.
      */
     @Autowired
     public WorkspaceRepositoryService(
         @Qualifier("validatorFactoryBean") Validator validator,
-        WorkspaceDao workspaceDao) {
+        WorkspaceDao workspaceDao,
+        WorkspaceVocabularyIndex workspaceVocabularyIndex) {
         super(validator);
         this.workspaceDao = workspaceDao;
+        this.workspaceVocabularyIndex = workspaceVocabularyIndex;
     }
 
     @Override
@@ -48,28 +54,42 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
      * Validates workspace.
      *
      * @param workspace workspace to validate
+     * @param options   validation options
+     * @param listener  listener notified about validation progress
      * @return report of validation
      */
-    public ValidationReport validateWorkspace(Workspace workspace) {
-        try {
-            return workspaceDao.validateWorkspace(workspace);
-        } catch (IOException e) {
-            throw new SGoVException(e);
-        }
+    public ValidationReport validateWorkspace(Workspace workspace, ValidationOptions options,
+                                              ValidationListener listener) {
+        return workspaceDao.validateWorkspace(workspace, options, listener);
     }
 
     /**
      * Validates set of vocabulary contexts.
      *
      * @param vocabularyContexts set of vocabulary contexts
+     * @param options            validation options
+     * @param listener           listener notified about validation progress
      * @return report of validation
      */
-    public ValidationReport validateVocabularies(Set<VocabularyContext> vocabularyContexts) {
-        try {
-            return workspaceDao.validateVocabularies(vocabularyContexts);
-        } catch (IOException e) {
-            throw new SGoVException(e);
-        }
+    public ValidationReport validateVocabularies(Set<VocabularyContext> vocabularyContexts,
+                                                 ValidationOptions options,
+                                                 ValidationListener listener) {
+        return workspaceDao.validateVocabularies(vocabularyContexts, options, listener);
+    }
+
+    /**
+     * Validates candidate statements of a vocabulary context without storing them.
+     *
+     * @param candidate         candidate statements
+     * @param vocabularyContext vocabulary context whose stored statements are validated together
+     *                          with the candidate ones, or null to validate them alone
+     * @param options           validation options
+     * @return report of validation
+     */
+    public ValidationReport validateCandidate(Model candidate,
+                                              VocabularyContext vocabularyContext,
+                                              ValidationOptions options) {
+        return workspaceDao.validateCandidate(candidate, vocabularyContext, options);
     }
 
     /**
@@ -120,7 +140,36 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
      * @return List of all workspaces
      */
     public List<Workspace> findAllInferred() {
-        List<Workspace> workspaces = findAll();
+        return setVocabularyLabels(findAll());
+    }
+
+    /**
+     * Loads a page of workspaces sorted by their IRIs including all their inferred properties.
+     *
+     * @param after IRI of the workspace the page follows, the first page if null
+     * @param limit maximum number of workspaces, all workspaces if null
+     * @return List of workspaces on the page
+     */
+    public List<Workspace> findAllInferred(URI after, Integer limit) {
+        return setVocabularyLabels(workspaceDao.findAll(after, limit).stream()
+            .map(this::postLoad)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Loads IRIs and labels of a page of workspaces sorted by their IRIs.
+     *
+     * @param after IRI of the workspace the page follows, the first page if null
+     * @param limit maximum number of workspaces, all workspaces if null
+     * @return List of workspaces on the page
+     */
+    public List<WorkspaceDto> findAllAsDtos(URI after, Integer limit) {
+        return workspaceDao.findLabels(after, limit).entrySet().stream()
+            .map(e -> new WorkspaceDto(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    private List<Workspace> setVocabularyLabels(List<Workspace> workspaces) {
         List<VocabularyContext> vocabularyContexts = workspaces.stream()
             .map(Workspace::getVocabularyContexts)
             .flatMap(Set::stream)
@@ -134,7 +183,11 @@ public class WorkspaceRepositoryService extends BaseRepositoryService<Workspace>
         return workspaceDao.getDependentsForVocabularyInWorkspace(workspace, vocabularyUri);
     }
 
+    /**
+     * Evicts cached workspaces, so that changes made externally (e.g. by tools) are reloaded.
+     */
     public void flush() {
         workspaceDao.flush();
+        workspaceVocabularyIndex.invalidate();
     }
 }
@@ -0,0 +1,126 @@
+package com.github.sgov.server.service.repository;
+
+import com.github.sgov.server.dao.WorkspaceDao;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of vocabularies held by workspaces, i.e. vocabularies that are write-locked.
+ *
+ * <p>The index maps a vocabulary IRI to the workspaces having a vocabulary context based on it.
+ * It is loaded from all workspaces when first used, kept up to date by {@link #add} and
+ * {@link #remove} and loaded again after {@link #invalidate()}, e.g. when the workspaces are
+ * flushed because they might have been modified externally.
+ */
+@Slf4j
+@Component
+public class WorkspaceVocabularyIndex {
+
+    private final WorkspaceDao workspaceDao;
+
+    /**
+     * Map from vocabulary IRI to a map from workspace IRI to the vocabulary context IRI, null if
+     * not loaded.
+     */
+    private Map<URI, Map<URI, URI>> contexts;
+
+    @Autowired
+    public WorkspaceVocabularyIndex(WorkspaceDao workspaceDao) {
+        this.workspaceDao = workspaceDao;
+    }
+
+    /**
+     * Returns IRIs of all vocabularies which have a vocabulary context in some workspace.
+     */
+    public synchronized Set<URI> getVocabularies() {
+        return Collections.unmodifiableSet(new HashSet<>(getContexts().keySet()));
+    }
+
+    /**
+     * Returns the vocabulary contexts based on the given vocabulary.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return map from workspace IRI to the IRI of the vocabulary context in the workspace
+     */
+    public synchronized Map<URI, URI> getContexts(URI vocabulary) {
+        final Map<URI, URI> result = getContexts().get(vocabulary);
+        return result == null ? Collections.emptyMap()
+            : Collections.unmodifiableMap(new HashMap<>(result));
+    }
+
+    /**
+     * Returns the vocabulary contexts based on the given vocabulary without loading the index.
+     *
+     * @param vocabulary IRI of the vocabulary
+     * @return map from workspace IRI to the IRI of the vocabulary context in the workspace, or
+     *     null if the index is not loaded
+     */
+    public synchronized Map<URI, URI> peekContexts(URI vocabulary) {
+        return contexts == null ? null : getContexts(vocabulary);
+    }
+
+    /**
+     * Tells whether the given vocabulary has a vocabulary context in some workspace.
+     */
+    public synchronized boolean contains(URI vocabulary) {
+        return getContexts().containsKey(vocabulary);
+    }
+
+    /**
+     * Records a vocabulary context added to the workspace.
+     */
+    public synchronized void add(Workspace workspace, VocabularyContext vocabularyContext) {
+        if (contexts != null) {
+            put(contexts, workspace, vocabularyContext);
+        }
+    }
+
+    /**
+     * Records a vocabulary context removed from the workspace.
+     */
+    public synchronized void remove(Workspace workspace, VocabularyContext vocabularyContext) {
+        if (contexts == null) {
+            return;
+        }
+        final Map<URI, URI> workspaces = contexts.get(vocabularyContext.getBasedOnVersion());
+        if (workspaces != null) {
+            workspaces.remove(workspace.getUri());
+            if (workspaces.isEmpty()) {
+                contexts.remove(vocabularyContext.getBasedOnVersion());
+            }
+        }
+    }
+
+    /**
+     * Drops the index, so that it is loaded again when next used.
+     */
+    public synchronized void invalidate() {
+        contexts = null;
+    }
+
+    private Map<URI, Map<URI, URI>> getContexts() {
+        if (contexts == null) {
+            final Map<URI, Map<URI, URI>> loaded = new HashMap<>();
+            workspaceDao.findAll().forEach(w -> w.getVocabularyContexts()
+                .forEach(vc -> put(loaded, w, vc)));
+            log.debug("Loaded index of {} vocabularies held by workspaces", loaded.size());
+            contexts = loaded;
+        }
+        return contexts;
+    }
+
+    private static void put(Map<URI, Map<URI, URI>> contexts, Workspace workspace,
+                            VocabularyContext vocabularyContext) {
+        contexts.computeIfAbsent(vocabularyContext.getBasedOnVersion(), v -> new HashMap<>())
+            .put(workspace.getUri(), vocabularyContext.getUri());
+    }
+}
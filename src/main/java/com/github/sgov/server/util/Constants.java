@@ -54,6 +54,35 @@ public class Constants {
          */
         public static final String VOCABULARY_CONTEXT_IRI = "vocabularyContextIri";
 
+        /**
+         * HTTP request query parameter denoting validation profile
+         *
+         * <p>Name of the set of rules to validate against.
+         */
+        public static final String PROFILE = "profile";
+
+        /**
+         * HTTP request query parameter denoting change-only validation
+         *
+         * <p>If true, only entities changed within the workspace are validated.
+         */
+        public static final String CHANGES_ONLY = "changesOnly";
+
+        /**
+         * HTTP request query parameter denoting fail-fast validation
+         *
+         * <p>If true, validation stops once a violation is found.
+         */
+        public static final String FAIL_FAST = "failFast";
+
+        /**
+         * HTTP request query parameter denoting union with stored data
+         *
+         * <p>If true, candidate statements are validated together with the stored statements
+         * of the vocabulary context.
+         */
+        public static final String UNION = "union";
+
         private QueryParams() {
             throw new AssertionError();
         }
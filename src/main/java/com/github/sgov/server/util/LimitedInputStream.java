@@ -0,0 +1,74 @@
+package com.github.sgov.server.util;
+
+import com.github.sgov.server.exception.PayloadTooLargeException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream failing with {@link PayloadTooLargeException} once more than the given number of
+ * bytes is read from it, so that oversized request bodies are rejected before they are read into
+ * memory.
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+
+    private long read;
+
+    /**
+     * Constructor.
+     *
+     * @param in       stream to read from
+     * @param maxBytes maximal number of bytes which may be read
+     */
+    public LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns whether more than the maximal number of bytes was read.
+     */
+    public boolean isExceeded() {
+        return read > maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) {
+        read += n;
+        if (isExceeded()) {
+            throw new PayloadTooLargeException("Data exceed the limit of " + maxBytes
+                + " bytes.");
+        }
+    }
+}
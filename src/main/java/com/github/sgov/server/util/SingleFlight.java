@@ -0,0 +1,138 @@
+package com.github.sgov.server.util;
+
+import com.github.sgov.server.exception.SGoVException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations. While a computation for a key is running, other
+ * callers with an equal key wait for it and share its result (or its exception) instead of
+ * starting their own. Results are not kept once the computation finishes.
+ *
+ * <p>A computation which fails because its caller was interrupted, cancelled or timed out does not
+ * fail the other callers, as their own requests may still proceed. One of them runs the
+ * computation again instead.
+ *
+ * @param <K> key identifying the computation
+ * @param <V> result of the computation
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the computation in the calling thread, unless a computation with an equal key is
+     * already running, in which case its result is awaited.
+     *
+     * @param key         key identifying the computation
+     * @param computation computation to run
+     * @return result of the computation
+     */
+    public V execute(K key, Supplier<V> computation) {
+        return execute(key, computation, null);
+    }
+
+    /**
+     * Runs the computation in the calling thread, unless a computation with an equal key is
+     * already running, in which case its result is awaited at most for the given time.
+     *
+     * @param key         key identifying the computation
+     * @param computation computation to run
+     * @param timeout     maximal time to wait for a running computation, unlimited if null
+     * @return result of the computation
+     * @throws SGoVException if the running computation does not finish in time
+     */
+    public V execute(K key, Supplier<V> computation, Duration timeout) {
+        final long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        while (true) {
+            final CompletableFuture<V> own = new CompletableFuture<>();
+            final CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+            if (running == null) {
+                return run(key, own, computation);
+            }
+            try {
+                return timeout == null ? await(running)
+                    : await(running, deadline - System.nanoTime(), timeout);
+            } catch (CancellationException e) {
+                // the computation was abandoned by its caller, retry
+            }
+        }
+    }
+
+    private V run(K key, CompletableFuture<V> own, Supplier<V> computation) {
+        final V result;
+        try {
+            result = computation.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            if (isAbandoned(e)) {
+                own.cancel(false);
+            } else {
+                own.completeExceptionally(e);
+            }
+            throw e;
+        }
+        inFlight.remove(key, own);
+        own.complete(result);
+        return result;
+    }
+
+    /**
+     * Tells whether the computation failed because its caller was interrupted, cancelled or timed
+     * out rather than because of the computation itself.
+     */
+    private static boolean isAbandoned(Throwable failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException
+                || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SGoVException("Interrupted while waiting for a running computation.", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running, long nanos, Duration timeout) {
+        try {
+            return running.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SGoVException("Interrupted while waiting for a running computation.", e);
+        } catch (TimeoutException e) {
+            throw new SGoVException("Running computation did not finish within " + timeout + ".",
+                e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+        }
+        return new SGoVException(e.getCause());
+    }
+}
@@ -19,6 +19,8 @@ public final class Vocabulary {
         "http://onto.fel.cvut.cz/ontologies/slovník/agendový/popis-dat/pojem/";
     public static final String CHANGE_DESCRIPTION_NAMESPACE =
         "https://slovník.gov.cz/datový/popis-zmen/pojem/";
+    public static final String SGOV_SERVER_NAMESPACE =
+        SLOVNIK_GOV_CZ + "/aplikační/sgov-server/pojem/";
 
     public static final String s_c_metadatovy_kontext = WORKSPACE_NAMESPACE + "metadatový-kontext";
     public static final String s_c_prilohovy_kontext = WORKSPACE_NAMESPACE + "přílohový-kontext";
@@ -41,6 +43,16 @@ public final class Vocabulary {
     public static final String s_p_ma_prilohu = DATA_DESCRIPTION_NAMESPACE
         + "má-přílohu";
 
+    public static final String s_c_zprava_validace = SGOV_SERVER_NAMESPACE + "zpráva-validace";
+    public static final String s_p_validuje_kontext = SGOV_SERVER_NAMESPACE + "validuje-kontext";
+    public static final String s_p_v_pracovnim_prostoru = SGOV_SERVER_NAMESPACE
+        + "v-pracovním-prostoru";
+    public static final String s_p_ma_profil_validace = SGOV_SERVER_NAMESPACE
+        + "má-profil-validace";
+    public static final String s_p_ma_otisk_obsahu = SGOV_SERVER_NAMESPACE + "má-otisk-obsahu";
+    public static final String s_p_ma_otisk_importu = SGOV_SERVER_NAMESPACE
+        + "má-otisk-importu";
+
     public static final String s_c_uzivatel = DATA_DESCRIPTION_NAMESPACE
         + "uživatel";
     public static final String s_c_administrator = WORKSPACE_NAMESPACE
@@ -82,6 +94,8 @@ public final class Vocabulary {
     public static final String postfix_kontextu_sledovani_zmen = "/změny";
     public static final String s_p_ma_gestora = CHANGE_DESCRIPTION_NAMESPACE
         + "má-gestora";
+    public static final String s_p_ma_zmenenou_entitu = CHANGE_DESCRIPTION_NAMESPACE
+        + "má-změněnou-entitu";
 
     private Vocabulary() {
     }
@@ -0,0 +1,126 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.exception.SGoVException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QuerySolution;
+
+/**
+ * Content fingerprints of named graphs, computed inside the repository by a single query.
+ *
+ * <p>The fingerprint of a graph consists of the number of its statements and of the sum of 32-bit
+ * hashes of the individual statements. It thus changes whenever a statement is added, removed or
+ * replaced, e.g. when a label is edited without changing the size of the graph, while it does not
+ * depend on the order in which the repository returns the statements. Blank nodes are hashed as
+ * empty strings, as their labels are not stable across queries. Fingerprints of in-memory graphs
+ * are computed in the same way, so that they are comparable with those of stored graphs.
+ */
+public final class GraphFingerprints {
+
+    /**
+     * Fingerprint of a graph without statements, which is missing in the query results.
+     */
+    public static final String EMPTY = "0:0";
+
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    /**
+     * Number of leading hexadecimal digits of the MD5 hash of a statement which are summed.
+     */
+    private static final int HASH_DIGITS = 8;
+
+    private GraphFingerprints() {
+    }
+
+    /**
+     * Creates a query selecting the graph IRI ({@code ?g}), the number of statements
+     * ({@code ?count}) and the digest ({@code ?digest}) of each non-empty given graph.
+     *
+     * @param graphs IRIs of the named graphs
+     * @return SPARQL select query
+     */
+    public static String createQuery(Collection<String> graphs) {
+        final StringBuilder values = new StringBuilder();
+        graphs.forEach(g -> values.append('<').append(g).append("> "));
+        return "SELECT ?g (COUNT(*) AS ?count) (SUM(?hash) AS ?digest) WHERE {"
+            + " VALUES ?g { " + values + "} GRAPH ?g {?s ?p ?o}"
+            + " BIND (MD5(CONCAT(" + term("s") + ", \" \", " + term("p") + ", \" \", "
+            + term("o") + ")) AS ?md5)"
+            + " BIND (" + hashOfMd5() + " AS ?hash) } GROUP BY ?g";
+    }
+
+    /**
+     * Returns the fingerprint of a graph from a solution of {@link #createQuery(Collection)}.
+     */
+    public static String getFingerprint(QuerySolution solution) {
+        return solution.getLiteral("count").getLexicalForm() + ":"
+            + (solution.contains("digest")
+            ? solution.getLiteral("digest").getLexicalForm() : "-");
+    }
+
+    /**
+     * Computes the fingerprint of an in-memory graph, equal to the one the query computes for a
+     * stored graph with the same statements.
+     */
+    public static String getFingerprint(Graph graph) {
+        final MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SGoVException(e);
+        }
+        final long[] digest = new long[1];
+        graph.find().forEachRemaining(t -> {
+            final byte[] hash = md5.digest((term(t.getSubject()) + " " + term(t.getPredicate())
+                + " " + term(t.getObject())).getBytes(StandardCharsets.UTF_8));
+            // the leading hexadecimal digits of the hash are its leading bytes
+            long value = 0;
+            for (int i = 0; i < HASH_DIGITS / 2; i++) {
+                value = (value << 8) | (hash[i] & 0xff);
+            }
+            digest[0] += value;
+        });
+        return graph.size() + ":" + digest[0];
+    }
+
+    private static String term(Node node) {
+        if (node.isLiteral()) {
+            return node.getLiteralLexicalForm() + "@" + node.getLiteralLanguage() + "^^"
+                + node.getLiteralDatatypeURI();
+        }
+        return node.isURI() ? node.getURI() : "";
+    }
+
+    /**
+     * Returns an expression converting the term to a string, distinguishing literals by their
+     * language and datatype, and blank nodes to an empty string.
+     */
+    private static String term(String variable) {
+        final String v = "?" + variable;
+        return "COALESCE(CONCAT(STR(" + v + "), \"@\", LANG(" + v + "), \"^^\", STR(DATATYPE("
+            + v + "))), STR(" + v + "), \"\")";
+    }
+
+    /**
+     * Returns an expression converting the leading digits of the hash in {@code ?md5} to an
+     * integer. SPARQL cannot parse hexadecimal numbers, the value of each digit is the length of
+     * the hexadecimal digits preceding it.
+     */
+    private static String hashOfMd5() {
+        final StringBuilder expression = new StringBuilder();
+        long weight = 1;
+        for (int i = HASH_DIGITS; i > 0; i--) {
+            if (expression.length() > 0) {
+                expression.append(" + ");
+            }
+            expression.append("STRLEN(STRBEFORE(\"").append(HEX_DIGITS)
+                .append("\", SUBSTR(?md5, ").append(i).append(", 1))) * ").append(weight);
+            weight *= HEX_DIGITS.length();
+        }
+        return expression.toString();
+    }
+}
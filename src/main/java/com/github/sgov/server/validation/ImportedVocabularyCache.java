@@ -0,0 +1,150 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.util.SingleFlight;
+import com.github.sgov.server.util.Vocabulary;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide cache of published vocabularies imported by validated vocabularies.
+ *
+ * <p>Published vocabularies change only when a publication pull request is merged, which the
+ * server is not notified about, so their statements are fetched once and kept as read-only graphs
+ * shared by all validations until they expire after {@link ValidationConf#getImportCacheTtl()}.
+ * Concurrent validations missing the same vocabularies share a single fetch. Expired graphs are
+ * dropped, only their fingerprints are kept to find out whether a reloaded vocabulary changed.
+ */
+@Slf4j
+@Component
+public class ImportedVocabularyCache {
+
+    private static final Node IMPORTS = NodeFactory.createURI(Vocabulary.s_c_import);
+
+    private final ValidationConf validationConf;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Fingerprints of the vocabularies loaded so far, including the expired ones.
+     */
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final SingleFlight<Set<String>, Map<String, Graph>> loads = new SingleFlight<>();
+
+    @Autowired
+    public ImportedVocabularyCache(ValidationConf validationConf) {
+        this.validationConf = validationConf;
+    }
+
+    /**
+     * Returns the vocabularies imported by the given graph, directly or transitively.
+     *
+     * @param graph  graph with statements of a vocabulary
+     * @param loader fetches statements of the given vocabularies, keyed by vocabulary IRI
+     * @return read-only graphs of the imported vocabularies, keyed by vocabulary IRI
+     */
+    public Map<String, Graph> getImports(Graph graph,
+                                         Function<Set<String>, Map<String, Graph>> loader) {
+        final Map<String, Graph> imports = new LinkedHashMap<>();
+        Set<String> frontier = getDirectImports(graph);
+        while (!frontier.isEmpty()) {
+            final Map<String, Graph> graphs = getAll(frontier, loader);
+            final Set<String> next = new HashSet<>();
+            graphs.forEach((iri, g) -> {
+                imports.put(iri, g);
+                getDirectImports(g).stream()
+                    .filter(i -> !imports.containsKey(i) && !graphs.containsKey(i))
+                    .forEach(next::add);
+            });
+            frontier = next;
+        }
+        return imports;
+    }
+
+    private Map<String, Graph> getAll(Set<String> iris,
+                                      Function<Set<String>, Map<String, Graph>> loader) {
+        final long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expires <= now);
+        final Map<String, Graph> graphs = new LinkedHashMap<>();
+        final Set<String> missing = new HashSet<>();
+        iris.forEach(iri -> {
+            final Entry e = entries.get(iri);
+            if (e != null && e.expires > now) {
+                graphs.put(iri, e.graph);
+            } else {
+                missing.add(iri);
+            }
+        });
+        if (!missing.isEmpty()) {
+            graphs.putAll(loads.execute(missing, () -> load(missing, loader)));
+        }
+        return graphs;
+    }
+
+    private Map<String, Graph> load(Set<String> iris,
+                                    Function<Set<String>, Map<String, Graph>> loader) {
+        log.debug("Loading imported vocabularies {}", iris);
+        final long expires =
+            System.currentTimeMillis() + validationConf.getImportCacheTtl().toMillis();
+        final Map<String, Graph> loaded = loader.apply(iris);
+        final Map<String, Graph> graphs = new LinkedHashMap<>();
+        iris.forEach(iri -> {
+            final Graph g = new GraphReadOnly(loaded.get(iri));
+            entries.put(iri, new Entry(g, expires));
+            final String fingerprint = GraphFingerprints.getFingerprint(g);
+            final String previous = fingerprints.put(iri, fingerprint);
+            if (previous != null && !previous.equals(fingerprint)) {
+                // the expired vocabulary has been published meanwhile
+                generation.incrementAndGet();
+            }
+            graphs.put(iri, g);
+        });
+        return graphs;
+    }
+
+    /**
+     * Returns a number which changes whenever a cached vocabulary is reloaded with a different
+     * content, so that validation reports depending on it are not reused.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    private static Set<String> getDirectImports(Graph graph) {
+        final Set<String> imports = new HashSet<>();
+        graph.find(Node.ANY, IMPORTS, Node.ANY).forEachRemaining(t -> {
+            if (t.getObject().isURI()) {
+                imports.add(t.getObject().getURI());
+            }
+        });
+        return imports.isEmpty() ? Collections.emptySet() : imports;
+    }
+
+    private static final class Entry {
+
+        private final Graph graph;
+
+        private final long expires;
+
+        private Entry(Graph graph, long expires) {
+            this.graph = graph;
+            this.expires = expires;
+        }
+    }
+}
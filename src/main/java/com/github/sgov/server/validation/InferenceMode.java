@@ -0,0 +1,32 @@
+package com.github.sgov.server.validation;
+
+/**
+ * Inference applied to the data model before it is validated.
+ */
+public enum InferenceMode {
+
+    /**
+     * Chooses the cheapest mode giving the same results as {@link #FULL}: {@link #FULL} if the
+     * shapes observe types of nodes, which may be implied by rdfs:domain or rdfs:range,
+     * {@link #RDFS_CLOSURE} if they use other constraints which do not follow rdfs:subClassOf on
+     * their own, and {@link #NONE} otherwise. This is the default.
+     */
+    AUTO,
+
+    /**
+     * Data are validated as they are stored, in a plain in-memory graph.
+     */
+    NONE,
+
+    /**
+     * Types inherited through rdfs:subClassOf and statements of the predicates used by the shapes
+     * implied by rdfs:subPropertyOf are materialized once before validation.
+     */
+    RDFS_CLOSURE,
+
+    /**
+     * Data are wrapped in a Jena RDFS inference model, which answers every query of the
+     * validation engine through the reasoner.
+     */
+    FULL
+}
@@ -0,0 +1,51 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+
+/**
+ * Validation report merged from reports of individual vocabularies.
+ */
+public final class MergedValidationReport implements ValidationReport {
+
+    private final boolean conforms;
+
+    private final List<ValidationResult> results;
+
+    public MergedValidationReport(boolean conforms, List<ValidationResult> results) {
+        this.conforms = conforms;
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Merges the given reports into a single one with results sorted by severity.
+     *
+     * @param reports reports to merge
+     * @return merged report which conforms iff all the given reports conform
+     */
+    public static MergedValidationReport of(Collection<? extends ValidationReport> reports) {
+        boolean conforms = true;
+        final List<ValidationResult> results = new ArrayList<>();
+        for (final ValidationReport report : reports) {
+            conforms = conforms && report.conforms();
+            results.addAll(report.results());
+        }
+        results.sort(new ValidationResultSeverityComparator());
+        return new MergedValidationReport(conforms, results);
+    }
+
+    @Override
+    public boolean conforms() {
+        return conforms;
+    }
+
+    @Override
+    public List<ValidationResult> results() {
+        return results;
+    }
+}
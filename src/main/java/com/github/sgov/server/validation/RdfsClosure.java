@@ -0,0 +1,226 @@
+package com.github.sgov.server.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * Materializes the part of the RDFS closure of a data model that SHACL shapes may observe.
+ *
+ * <p>Instead of answering every triple pattern through a reasoner, the inferred statements are
+ * computed once and added to a plain graph: types inherited through rdfs:subClassOf and, for the
+ * predicates referenced by the shapes, statements implied by rdfs:subPropertyOf.
+ */
+public final class RdfsClosure {
+
+    private static final Pattern IRI = Pattern.compile("<([^>\\s]+)>");
+
+    private static final Pattern PREFIXED_NAME =
+        Pattern.compile("([\\p{L}][\\p{L}\\p{N}_.-]*)?:([\\p{L}\\p{N}_][\\p{L}\\p{N}_.-]*)");
+
+    /**
+     * The keyword 'a' of a SPARQL triple pattern, standing for rdf:type.
+     */
+    private static final Pattern TYPE_KEYWORD = Pattern.compile("(^|\\s)a(\\s|$)");
+
+    private RdfsClosure() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Tells whether the shapes use constraints which do not follow rdfs:subClassOf on their own,
+     * i.e. SPARQL-based constraints and targets, or property paths over RDFS vocabulary.
+     *
+     * @param shapesModel model with SHACL shapes
+     * @return true if the data should be inferred before validation
+     */
+    public static boolean needsInference(Model shapesModel) {
+        return shapesModel.contains(null, SH.select)
+            || shapesModel.contains(null, SH.ask)
+            || shapesModel.contains(null, SH.path, RDF.type)
+            || shapesModel.contains(null, SH.path, RDFS.subClassOf)
+            || shapesModel.contains(null, SH.path, RDFS.subPropertyOf);
+    }
+
+    /**
+     * Tells whether the shapes observe types of nodes, which RDFS also infers from rdfs:domain and
+     * rdfs:range of the predicates used by the data, i.e. whether they use class targets, sh:class
+     * constraints, paths over rdf:type or SPARQL queries referring to rdf:type. Only
+     * {@link InferenceMode#FULL} derives such types.
+     *
+     * @param shapesModel model with SHACL shapes
+     * @return true if the data should be validated with full inference
+     */
+    public static boolean needsDomainRangeInference(Model shapesModel) {
+        if (shapesModel.contains(null, SH.targetClass)
+            || shapesModel.contains(null, SH.class_)
+            || shapesModel.contains(null, SH.path, RDF.type)
+            || hasImplicitClassTarget(shapesModel, RDFS.Class)
+            || hasImplicitClassTarget(shapesModel, OWL.Class)) {
+            return true;
+        }
+        final Map<String, String> prefixes = getPrefixes(shapesModel);
+        return shapesModel.listStatements().toList().stream()
+            .filter(RdfsClosure::isQuery)
+            .anyMatch(s -> {
+                final Set<String> iris = new HashSet<>();
+                collectQueryIris(s.getString(), prefixes, iris);
+                return iris.contains(RDF.type.getURI())
+                    || TYPE_KEYWORD.matcher(s.getString()).find();
+            });
+    }
+
+    /**
+     * Collects IRIs of predicates the shapes may refer to, i.e. all IRIs of the shapes model and
+     * all IRIs and prefixed names of its SPARQL queries.
+     *
+     * @param shapesModel model with SHACL shapes
+     * @return predicate IRIs, always including rdf:type
+     */
+    public static Set<String> getReferencedPredicates(Model shapesModel) {
+        final Set<String> predicates = new HashSet<>();
+        predicates.add(RDF.type.getURI());
+        final Map<String, String> prefixes = getPrefixes(shapesModel);
+        shapesModel.listStatements().forEachRemaining(s -> {
+            predicates.add(s.getPredicate().getURI());
+            if (s.getObject().isURIResource()) {
+                predicates.add(s.getResource().getURI());
+            } else if (isQuery(s)) {
+                collectQueryIris(s.getString(), prefixes, predicates);
+            }
+        });
+        return predicates;
+    }
+
+    /**
+     * Tells whether some shape is an instance of the given metaclass, i.e. targets its own
+     * instances.
+     */
+    private static boolean hasImplicitClassTarget(Model shapesModel, Resource metaclass) {
+        return shapesModel.listSubjectsWithProperty(RDF.type, metaclass).toList().stream()
+            .anyMatch(r -> r.hasProperty(RDF.type, SH.NodeShape)
+                || r.hasProperty(RDF.type, SH.PropertyShape));
+    }
+
+    /**
+     * Returns the prefixes of the shapes model together with those declared for SPARQL queries.
+     */
+    private static Map<String, String> getPrefixes(Model shapesModel) {
+        final Map<String, String> prefixes = new HashMap<>(shapesModel.getNsPrefixMap());
+        shapesModel.listStatements(null, SH.declare, (RDFNode) null).forEachRemaining(s -> {
+            final Resource declaration = s.getResource();
+            if (declaration.hasProperty(SH.prefix) && declaration.hasProperty(SH.namespace)) {
+                prefixes.put(declaration.getProperty(SH.prefix).getString(),
+                    declaration.getProperty(SH.namespace).getString());
+            }
+        });
+        return prefixes;
+    }
+
+    private static boolean isQuery(Statement s) {
+        return s.getObject().isLiteral() && (s.getPredicate().equals(SH.select)
+            || s.getPredicate().equals(SH.ask)
+            || s.getPredicate().equals(SH.construct));
+    }
+
+    private static void collectQueryIris(String query, Map<String, String> prefixes,
+                                         Set<String> predicates) {
+        final Matcher iris = IRI.matcher(query);
+        while (iris.find()) {
+            predicates.add(iris.group(1));
+        }
+        final Matcher names = PREFIXED_NAME.matcher(query);
+        while (names.find()) {
+            final String namespace =
+                prefixes.get(names.group(1) != null ? names.group(1) : "");
+            if (namespace != null) {
+                predicates.add(namespace + names.group(2));
+            }
+        }
+    }
+
+    /**
+     * Adds the inferred statements to the data model.
+     *
+     * @param dataModel  model to extend
+     * @param predicates IRIs of predicates whose subproperties are materialized
+     */
+    public static void materialize(Model dataModel, Set<String> predicates) {
+        materialize(dataModel.getGraph(), dataModel.getGraph(), predicates);
+    }
+
+    /**
+     * Adds statements inferred from the statements of the given base graph. Class and property
+     * hierarchies are looked up in the whole graph, so that they may come from imported
+     * vocabularies, while only statements of the base graph are extended.
+     *
+     * @param graph      graph to look the hierarchies up in and to add the statements to
+     * @param base       graph whose statements are extended, part of {@code graph}
+     * @param predicates IRIs of predicates whose subproperties are materialized
+     */
+    public static void materialize(Graph graph, Graph base, Set<String> predicates) {
+        final List<Triple> inferred = new ArrayList<>();
+
+        final Node subPropertyOf = RDFS.subPropertyOf.asNode();
+        for (final String predicate : predicates) {
+            final Node p = NodeFactory.createURI(predicate);
+            for (final Node q : closure(graph, p, subPropertyOf, false)) {
+                base.find(Node.ANY, q, Node.ANY).forEachRemaining(t ->
+                    inferred.add(Triple.create(t.getSubject(), p, t.getObject())));
+            }
+        }
+
+        if (predicates.contains(RDF.type.getURI())) {
+            final Node type = RDF.type.asNode();
+            final Node subClassOf = RDFS.subClassOf.asNode();
+            final Map<Node, Set<Node>> superClasses = new HashMap<>();
+            base.find(Node.ANY, type, Node.ANY).forEachRemaining(t ->
+                superClasses.computeIfAbsent(t.getObject(),
+                        c -> closure(graph, c, subClassOf, true))
+                    .forEach(c -> inferred.add(Triple.create(t.getSubject(), type, c))));
+        }
+
+        inferred.forEach(base::add);
+    }
+
+    /**
+     * Nodes reachable from the given node over the given property, excluding the node itself.
+     *
+     * @param forward if true, follows the property from subject to object, otherwise backwards
+     */
+    private static Set<Node> closure(Graph graph, Node start, Node property, boolean forward) {
+        final Set<Node> visited = new HashSet<>();
+        final Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.add(start);
+        while (!toVisit.isEmpty()) {
+            final Node n = toVisit.poll();
+            (forward ? graph.find(n, property, Node.ANY) : graph.find(Node.ANY, property, n))
+                .forEachRemaining(t -> {
+                    final Node next = forward ? t.getObject() : t.getSubject();
+                    if (!next.equals(start) && visited.add(next)) {
+                        toVisit.add(next);
+                    }
+                });
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.sgov.server.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.topbraid.shacl.engine.Shape;
+import org.topbraid.shacl.engine.ShapesGraph;
+import org.topbraid.shacl.util.SHACLUtil;
+import org.topbraid.shacl.validation.ValidationEngine;
+import org.topbraid.shacl.validation.ValidationEngineFactory;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationUtil;
+
+/**
+ * SHACL rules parsed and compiled once, ready to validate any number of data models.
+ *
+ * <p>The shapes model and the compiled shapes graph are only read during validation, so a
+ * single instance may be shared by concurrent validations.
+ */
+public final class ShapeSet {
+
+    /**
+     * Name under which shapes not declared by any rule file are timed.
+     */
+    public static final String OTHER_RULES = "other";
+
+    private final String name;
+
+    private final Set<URL> rules;
+
+    private final Model shapesModel;
+
+    private final ShapesGraph shapesGraph;
+
+    private final URI shapesGraphUri;
+
+    private final InferenceMode inference;
+
+    private final Set<String> closurePredicates;
+
+    private final Map<String, List<Shape>> shapesByRule = new LinkedHashMap<>();
+
+    private final Map<String, List<Shape>> inProcessShapesByRule = new LinkedHashMap<>();
+
+    private final List<SparqlCheck> sparqlChecks = new ArrayList<>();
+
+    private ShapeSet(String name, Set<URL> rules, Model shapesModel, InferenceMode inference,
+                     Map<Node, String> ruleOfShape) {
+        this.name = name;
+        this.rules = Collections.unmodifiableSet(rules);
+        if (inference == InferenceMode.AUTO) {
+            if (RdfsClosure.needsDomainRangeInference(shapesModel)) {
+                inference = InferenceMode.FULL;
+            } else if (RdfsClosure.needsInference(shapesModel)) {
+                inference = InferenceMode.RDFS_CLOSURE;
+            } else {
+                inference = InferenceMode.NONE;
+            }
+        }
+        this.inference = inference;
+        this.closurePredicates = inference == InferenceMode.RDFS_CLOSURE
+            ? RdfsClosure.getReferencedPredicates(shapesModel) : Collections.emptySet();
+        this.shapesModel = ValidationUtil.ensureToshTriplesExist(shapesModel);
+        this.shapesGraph = new ShapesGraph(this.shapesModel);
+        this.shapesGraphUri = SHACLUtil.createRandomShapesGraphURI();
+        // compile the shapes now, so that concurrent validations only read them
+        for (final Shape shape : this.shapesGraph.getRootShapes()) {
+            final String rule =
+                ruleOfShape.getOrDefault(shape.getShapeResource().asNode(), OTHER_RULES);
+            shapesByRule.computeIfAbsent(rule, r -> new ArrayList<>()).add(shape);
+            final List<SparqlCheck> checks =
+                SparqlPushdown.compile(shape.getShapeResource(), inference, closurePredicates,
+                    rule);
+            if (checks != null) {
+                sparqlChecks.addAll(checks);
+            } else {
+                inProcessShapesByRule.computeIfAbsent(rule, r -> new ArrayList<>()).add(shape);
+            }
+        }
+    }
+
+    /**
+     * Parses and compiles the given rule files.
+     *
+     * @param name      name of the validation profile the rules belong to
+     * @param rules     URLs of Turtle files with SHACL rules
+     * @param inference inference applied to the validated data
+     * @return compiled shape set
+     * @throws IOException if some rule file cannot be read
+     */
+    public static ShapeSet load(String name, Collection<URL> rules, InferenceMode inference)
+        throws IOException {
+        final Model shapesModel = ModelFactory.createDefaultModel();
+        final Map<Node, String> ruleOfShape = new HashMap<>();
+        for (final URL rule : rules) {
+            final Model ruleModel = ModelFactory.createDefaultModel();
+            try (InputStream is = rule.openStream()) {
+                RDFDataMgr.read(ruleModel, is, Lang.TURTLE);
+            }
+            final String ruleName = getFileName(rule);
+            ruleModel.listSubjects()
+                .forEachRemaining(r -> ruleOfShape.putIfAbsent(r.asNode(), ruleName));
+            shapesModel.add(ruleModel);
+        }
+        return new ShapeSet(name, new LinkedHashSet<>(rules), shapesModel, inference,
+            ruleOfShape);
+    }
+
+    /**
+     * Returns the file name of a rule, e.g. m2.ttl.
+     */
+    public static String getFileName(URL rule) {
+        final String path = rule.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<URL> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the inference mode used by this set, never {@link InferenceMode#AUTO}.
+     */
+    public InferenceMode getInference() {
+        return inference;
+    }
+
+    /**
+     * Returns the constraints of the shapes that can be evaluated inside the repository instead
+     * of the in-process validation, see {@link #validate(Model, Collection, ObjLongConsumer,
+     * boolean)}.
+     */
+    public List<SparqlCheck> getSparqlChecks() {
+        return Collections.unmodifiableList(sparqlChecks);
+    }
+
+    /**
+     * Tells whether some shapes cannot be evaluated inside the repository, i.e. whether the data
+     * has to be validated in process even if all SPARQL checks are evaluated in the repository.
+     */
+    public boolean hasInProcessShapes() {
+        return !inProcessShapesByRule.isEmpty();
+    }
+
+    /**
+     * Creates the model to validate from a model with the data to be validated. Unless full
+     * inference is required, this is the given model itself.
+     *
+     * @param base model with statements to validate
+     */
+    public Model createDataModel(Model base) {
+        if (inference == InferenceMode.FULL) {
+            return ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM_RDFS_INF, base);
+        }
+        return base;
+    }
+
+    /**
+     * Returns the graph holding the statements of a data model created by
+     * {@link #createDataModel(Model)}, i.e. without statements inferred by a reasoner.
+     */
+    public static Graph getBaseGraph(Model dataModel) {
+        return dataModel instanceof OntModel
+            ? ((OntModel) dataModel).getBaseGraph() : dataModel.getGraph();
+    }
+
+    /**
+     * Validates the given data model against the shapes of this set. The data model should be
+     * created by {@link #createDataModel(Model)}, with {@link InferenceMode#RDFS_CLOSURE} the
+     * inferred statements are added to it.
+     *
+     * @param dataModel data to validate
+     * @return validation report
+     * @throws InterruptedException if the validating thread is interrupted
+     */
+    public ValidationReport validate(Model dataModel) throws InterruptedException {
+        return validate(dataModel, Collections.emptyList());
+    }
+
+    /**
+     * Validates the given data model against the shapes of this set, together with the
+     * vocabularies it imports. The imported graphs are only unioned in, they are neither copied
+     * nor modified, and only nodes of the data model are validated.
+     *
+     * @param dataModel data to validate, created by {@link #createDataModel(Model)}
+     * @param imports   read-only graphs of the imported vocabularies
+     * @return validation report
+     * @throws InterruptedException if the validating thread is interrupted
+     */
+    public ValidationReport validate(Model dataModel, Collection<Graph> imports)
+        throws InterruptedException {
+        return validate(dataModel, imports, (rule, nanos) -> {
+        });
+    }
+
+    /**
+     * Validates the given data model like {@link #validate(Model, Collection)}, reporting the
+     * time spent by the shapes of each rule file.
+     *
+     * @param dataModel data to validate, created by {@link #createDataModel(Model)}
+     * @param imports   read-only graphs of the imported vocabularies
+     * @param ruleTimes receives the rule file name and the nanoseconds spent by its shapes
+     * @return validation report
+     * @throws InterruptedException if the validating thread is interrupted
+     */
+    public ValidationReport validate(Model dataModel, Collection<Graph> imports,
+                                     ObjLongConsumer<String> ruleTimes)
+        throws InterruptedException {
+        return validate(dataModel, imports, ruleTimes, false);
+    }
+
+    /**
+     * Validates the given data model like {@link #validate(Model, Collection, ObjLongConsumer)},
+     * optionally skipping the shapes compiled to {@link #getSparqlChecks()}, which are then
+     * evaluated in the repository by the caller. The engine does not react to interruption, so
+     * the interruption of the validating thread is checked between individual shapes.
+     *
+     * @param dataModel        data to validate, created by {@link #createDataModel(Model)}
+     * @param imports          read-only graphs of the imported vocabularies
+     * @param ruleTimes        receives the rule file name and the nanoseconds spent by its shapes
+     * @param skipSparqlChecks whether to validate only the shapes not compiled to SPARQL checks
+     * @return validation report
+     * @throws InterruptedException if the validating thread is interrupted
+     */
+    public ValidationReport validate(Model dataModel, Collection<Graph> imports,
+                                     ObjLongConsumer<String> ruleTimes,
+                                     boolean skipSparqlChecks)
+        throws InterruptedException {
+        final Graph base = getBaseGraph(dataModel);
+        Model model = dataModel;
+        if (!imports.isEmpty()) {
+            if (dataModel instanceof OntModel) {
+                imports.forEach(g -> ((OntModel) dataModel)
+                    .addSubModel(ModelFactory.createModelForGraph(g)));
+            } else {
+                final MultiUnion union = new MultiUnion();
+                union.addGraph(base);
+                union.setBaseGraph(base);
+                imports.forEach(union::addGraph);
+                model = ModelFactory.createModelForGraph(union);
+            }
+        }
+        if (inference == InferenceMode.RDFS_CLOSURE) {
+            RdfsClosure.materialize(model.getGraph(), base, closurePredicates);
+        }
+        final ValidationEngine engine = createEngine(model);
+        if (!imports.isEmpty()) {
+            engine.setFocusNodeFilter(n -> base.contains(n.asNode(), Node.ANY, Node.ANY));
+        }
+        final Map<String, List<Shape>> shapes =
+            skipSparqlChecks ? inProcessShapesByRule : shapesByRule;
+        for (final Map.Entry<String, List<Shape>> rule : shapes.entrySet()) {
+            final long start = System.nanoTime();
+            for (final Shape shape : rule.getValue()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                engine.validateShapes(Collections.singletonList(shape));
+            }
+            ruleTimes.accept(rule.getKey(), System.nanoTime() - start);
+        }
+        return engine.getValidationReport();
+    }
+
+    private ValidationEngine createEngine(Model dataModel) {
+        final Dataset dataset = DatasetFactory.create(dataModel);
+        dataset.addNamedModel(shapesGraphUri.toString(), shapesModel);
+        return ValidationEngineFactory.get()
+            .create(dataset, shapesGraphUri, shapesGraph, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.Validator;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.NotFoundException;
+import com.github.sgov.server.exception.SGoVException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide registry of compiled SHACL shapes, keyed by validation profile.
+ *
+ * <p>Rules are bundled with sgov-validator and change only when it is upgraded, so each profile
+ * configured in {@link ValidationConf#getProfiles()} is parsed and compiled on first use and kept
+ * for the lifetime of the application.
+ */
+@Slf4j
+@Component
+public class ShapesRegistry {
+
+    private final ValidationConf validationConf;
+
+    private final Map<String, ShapeSet> shapeSets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShapesRegistry(ValidationConf validationConf) {
+        this.validationConf = validationConf;
+    }
+
+    /**
+     * Returns compiled shapes of the given profile, loading them if needed.
+     *
+     * @param profile name of the validation profile, null for the default profile
+     * @return compiled shapes
+     * @throws NotFoundException if no such profile is configured
+     */
+    public ShapeSet getShapes(String profile) {
+        return shapeSets.computeIfAbsent(
+            profile != null ? profile : validationConf.getDefaultProfile(), this::load);
+    }
+
+    private ShapeSet load(String profileName) {
+        final ValidationConf.Profile profile = validationConf.getProfiles().get(profileName);
+        if (profile == null) {
+            throw NotFoundException.create("Validation profile", profileName);
+        }
+        final Validator validator = new Validator();
+        final Set<URL> rules = new HashSet<>();
+        if (profile.isGlossary()) {
+            rules.addAll(validator.getGlossaryRules());
+        }
+        if (profile.isModel()) {
+            rules.addAll(validator.getModelRules());
+        }
+        if (profile.isVocabulary()) {
+            rules.addAll(validator.getVocabularyRules());
+        }
+        rules.removeIf(r -> profile.getExcludedRules().contains(ShapeSet.getFileName(r)));
+        log.info("Compiling {} rule files of validation profile {}", rules.size(), profileName);
+        try {
+            final ShapeSet shapes = ShapeSet.load(profileName, rules, profile.getInference());
+            log.info("Validation profile {} uses inference mode {}", profileName,
+                shapes.getInference());
+            if (shapes.getInference() == InferenceMode.FULL
+                && validationConf.getSpillThreshold() > 0) {
+                log.info("Vocabularies validated by profile {} are kept in memory regardless of "
+                    + "the spill threshold, as full inference is computed in memory", profileName);
+            }
+            return shapes;
+        } catch (IOException e) {
+            throw new SGoVException(
+                "Unable to load rules of validation profile " + profileName, e);
+        }
+    }
+}
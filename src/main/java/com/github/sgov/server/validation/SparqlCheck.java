@@ -0,0 +1,150 @@
+package com.github.sgov.server.validation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_Exists;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementTriplesBlock;
+import org.apache.jena.vocabulary.RDF;
+import org.topbraid.shacl.validation.ResourceValidationResult;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * A single SHACL constraint compiled by {@link SparqlPushdown} into a SPARQL SELECT query, so that
+ * it can be evaluated inside the repository instead of on downloaded data.
+ *
+ * <p>Each solution of the query is a violation of the constraint. The query binds the focus node
+ * to {@code ?this} and may bind {@code ?value}, {@code ?path} and {@code ?message}. Variables in
+ * the messages are replaced by the values bound in the solution or, like in-process validation
+ * does, by the parameters of the constraint, e.g. {@code {$minCount}}.
+ */
+public final class SparqlCheck {
+
+    private static final Var THIS = Var.alloc("this");
+
+    private static final Pattern MESSAGE_VARIABLE = Pattern.compile("\\{[?$]([\\w]+)}");
+
+    private final String rule;
+
+    private final Resource sourceShape;
+
+    private final Resource severity;
+
+    private final List<RDFNode> messages;
+
+    private final Map<String, RDFNode> parameters;
+
+    private final Resource component;
+
+    private final Resource path;
+
+    private final Query query;
+
+    SparqlCheck(String rule, Resource sourceShape, Resource severity, List<RDFNode> messages,
+                Map<String, RDFNode> parameters, Resource component, Resource path,
+                Query query) {
+        this.rule = rule;
+        this.sourceShape = sourceShape;
+        this.severity = severity;
+        this.messages = Collections.unmodifiableList(messages);
+        this.parameters = Collections.unmodifiableMap(parameters);
+        this.component = component;
+        this.path = path;
+        this.query = query;
+    }
+
+    /**
+     * Returns the file name of the rule the constraint is declared in.
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * Creates the query checking the given vocabulary context. Imported vocabularies are part of
+     * the queried data, but only nodes of the vocabulary context are validated.
+     *
+     * @param vocabularyContext vocabulary context IRI
+     * @param imports           IRIs of the graphs of the imported vocabularies
+     * @return query to evaluate in the repository
+     */
+    public Query createQuery(String vocabularyContext, Collection<String> imports) {
+        final Query q = query.cloneQuery();
+        q.addGraphURI(vocabularyContext);
+        imports.forEach(q::addGraphURI);
+        if (!imports.isEmpty()) {
+            q.addNamedGraphURI(vocabularyContext);
+            final ElementTriplesBlock statement = new ElementTriplesBlock();
+            statement.addTriple(Triple.create(THIS, Var.alloc("focusProperty"),
+                Var.alloc("focusObject")));
+            final ElementGroup group = new ElementGroup();
+            group.addElement(q.getQueryPattern());
+            group.addElementFilter(new ElementFilter(new E_Exists(new ElementNamedGraph(
+                NodeFactory.createURI(vocabularyContext), statement))));
+            q.setQueryPattern(group);
+        }
+        return q;
+    }
+
+    /**
+     * Creates the validation result of a query solution.
+     *
+     * @param solution solution of the query created by {@link #createQuery(String, Collection)}
+     * @param results  model to create the result in
+     * @return validation result
+     */
+    public ValidationResult createResult(QuerySolution solution, Model results) {
+        final Resource result = results.createResource()
+            .addProperty(RDF.type, SH.ValidationResult)
+            .addProperty(SH.resultSeverity, severity)
+            .addProperty(SH.focusNode, solution.get(THIS.getVarName()))
+            .addProperty(SH.sourceShape, sourceShape)
+            .addProperty(SH.sourceConstraintComponent, component);
+        final RDFNode p = solution.contains("path") ? solution.get("path") : path;
+        if (p != null) {
+            result.addProperty(SH.resultPath, p);
+        }
+        if (solution.contains("value")) {
+            result.addProperty(SH.value, solution.get("value"));
+        }
+        if (solution.contains("message")) {
+            result.addProperty(SH.resultMessage, solution.get("message"));
+        } else {
+            messages.forEach(m -> result.addProperty(SH.resultMessage,
+                m.isLiteral() ? substitute(m, solution, results) : m));
+        }
+        return new ResourceValidationResult(result);
+    }
+
+    /**
+     * Replaces {?var} and {$var} in the message by the values bound in the solution, or by the
+     * parameters of the constraint.
+     */
+    private RDFNode substitute(RDFNode message, QuerySolution solution, Model results) {
+        final Matcher m = MESSAGE_VARIABLE.matcher(message.asLiteral().getLexicalForm());
+        final StringBuffer sb = new StringBuffer();
+        while (m.find()) {
+            final RDFNode value = solution.contains(m.group(1))
+                ? solution.get(m.group(1)) : parameters.get(m.group(1));
+            m.appendReplacement(sb, Matcher.quoteReplacement(value == null ? m.group()
+                : value.isLiteral() ? value.asLiteral().getLexicalForm() : value.toString()));
+        }
+        m.appendTail(sb);
+        return results.createLiteral(sb.toString(), message.asLiteral().getLanguage());
+    }
+}
@@ -0,0 +1,417 @@
+package com.github.sgov.server.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryException;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFList;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.syntax.ElementBind;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementMinus;
+import org.apache.jena.sparql.syntax.ElementService;
+import org.apache.jena.sparql.syntax.ElementSubQuery;
+import org.apache.jena.sparql.syntax.ElementVisitorBase;
+import org.apache.jena.sparql.syntax.ElementWalker;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * Compiles simple SHACL shapes into SPARQL queries evaluated inside the repository, see
+ * {@link SparqlCheck}.
+ *
+ * <p>A root node shape is compiled only if all its constraints can be expressed by a query with
+ * the same results as in-process validation. These are property shapes with a single predicate
+ * path and the constraints sh:minCount, sh:maxCount, sh:datatype, sh:nodeKind, sh:pattern,
+ * sh:languageIn and sh:uniqueLang, and, without inference, SPARQL-based constraints whose queries
+ * behave the same when the focus node is joined instead of pre-bound. Other shapes are left to
+ * in-process validation.
+ *
+ * <p>With {@link InferenceMode#RDFS_CLOSURE}, values of subproperties are followed only for the
+ * predicates whose subproperty statements the in-process validation materializes, see
+ * {@link RdfsClosure#materialize(Model, Set)}.
+ */
+public final class SparqlPushdown {
+
+    private static final String DASH_NAMESPACE = "http://datashapes.org/dash#";
+
+    private static final Set<Property> NODE_SHAPE_PROPERTIES = new HashSet<>(Arrays.asList(
+        SH.targetClass, SH.targetNode, SH.targetSubjectsOf, SH.targetObjectsOf, SH.property,
+        SH.sparql, SH.declare, SH.severity, SH.message, SH.name, SH.description, SH.deactivated,
+        SH.order, SH.group));
+
+    private static final Set<Property> PROPERTY_SHAPE_PROPERTIES = new HashSet<>(Arrays.asList(
+        SH.path, SH.minCount, SH.maxCount, SH.datatype, SH.nodeKind, SH.pattern, SH.flags,
+        SH.languageIn, SH.uniqueLang, SH.severity, SH.message, SH.name, SH.description,
+        SH.deactivated, SH.order, SH.group));
+
+    private static final Pattern UNSUPPORTED_VARIABLES =
+        Pattern.compile("[?$](shapesGraph|currentShape|PATH)\\b");
+
+    private SparqlPushdown() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Compiles the constraints of a root shape.
+     *
+     * @param shape             root shape
+     * @param inference         inference applied to the validated data, not
+     *                          {@link InferenceMode#AUTO}
+     * @param closurePredicates IRIs of predicates whose subproperties are materialized with
+     *                          {@link InferenceMode#RDFS_CLOSURE}
+     * @param rule              file name of the rule the shape is declared in
+     * @return compiled constraints, or null if the shape must be validated in process
+     */
+    public static List<SparqlCheck> compile(Resource shape, InferenceMode inference,
+                                            Set<String> closurePredicates, String rule) {
+        if (inference == InferenceMode.FULL || shape.hasProperty(SH.path)
+            || !hasOnly(shape, NODE_SHAPE_PROPERTIES)) {
+            return null;
+        }
+        if (isDeactivated(shape)) {
+            return Collections.emptyList();
+        }
+        final String target = getTarget(shape);
+        if (target == null) {
+            return null;
+        }
+        final Resource severity = getSeverity(shape);
+        final List<SparqlCheck> checks = new ArrayList<>();
+        for (final Statement s : shape.listProperties(SH.property).toList()) {
+            if (!s.getObject().isResource()) {
+                return null;
+            }
+            final List<SparqlCheck> propertyChecks =
+                compileProperty(s.getResource(), inference, closurePredicates, rule, target);
+            if (propertyChecks == null) {
+                return null;
+            }
+            checks.addAll(propertyChecks);
+        }
+        for (final Statement s : shape.listProperties(SH.sparql).toList()) {
+            final SparqlCheck check = inference == InferenceMode.NONE && s.getObject().isResource()
+                ? compileSparql(shape, s.getResource(), severity, rule, target) : null;
+            if (check == null) {
+                return null;
+            }
+            if (!isDeactivated(s.getResource())) {
+                checks.add(check);
+            }
+        }
+        return checks;
+    }
+
+    private static List<SparqlCheck> compileProperty(Resource shape, InferenceMode inference,
+                                                     Set<String> closurePredicates,
+                                                     String rule, String target) {
+        final Resource path = shape.getPropertyResourceValue(SH.path);
+        if (path == null || !path.isURIResource() || !hasOnly(shape, PROPERTY_SHAPE_PROPERTIES)
+            || inference != InferenceMode.NONE && (path.equals(RDF.type)
+            || path.equals(RDFS.subClassOf) || path.equals(RDFS.subPropertyOf))) {
+            return null;
+        }
+        if (isDeactivated(shape)) {
+            return Collections.emptyList();
+        }
+        final String value = inference == InferenceMode.RDFS_CLOSURE
+            && closurePredicates.contains(path.getURI())
+            ? "?this ?valueProperty ?value . ?valueProperty <" + RDFS.subPropertyOf.getURI()
+            + ">* <" + path.getURI() + "> ."
+            : "?this <" + path.getURI() + "> ?value .";
+        final Resource severity = getSeverity(shape);
+        final List<RDFNode> messages = getMessages(shape);
+        final List<SparqlCheck> checks = new ArrayList<>();
+        for (final Statement s : shape.listProperties().toList()) {
+            final RDFNode o = s.getObject();
+            final String query;
+            final Resource component;
+            final String defaultMessage;
+            if (s.getPredicate().equals(SH.minCount)) {
+                query = "SELECT ?this WHERE { " + target + " OPTIONAL { " + value + " } }"
+                    + " GROUP BY ?this HAVING (COUNT(DISTINCT ?value) < " + o.asLiteral().getInt()
+                    + ")";
+                component = SH.MinCountConstraintComponent;
+                defaultMessage = "Less than " + o.asLiteral().getInt() + " values";
+            } else if (s.getPredicate().equals(SH.maxCount)) {
+                query = "SELECT ?this WHERE { " + target + " " + value + " }"
+                    + " GROUP BY ?this HAVING (COUNT(DISTINCT ?value) > " + o.asLiteral().getInt()
+                    + ")";
+                component = SH.MaxCountConstraintComponent;
+                defaultMessage = "More than " + o.asLiteral().getInt() + " values";
+            } else if (s.getPredicate().equals(SH.datatype)) {
+                if (!o.isURIResource()) {
+                    return null;
+                }
+                query = selectValues(target, value, "!isLiteral(?value) || datatype(?value) != <"
+                    + o.asResource().getURI() + ">");
+                component = SH.DatatypeConstraintComponent;
+                defaultMessage = "Value does not have datatype " + o.asResource().getURI();
+            } else if (s.getPredicate().equals(SH.nodeKind)) {
+                final String condition = getNodeKindCondition(o);
+                if (condition == null) {
+                    return null;
+                }
+                query = selectValues(target, value, "!(" + condition + ")");
+                component = SH.NodeKindConstraintComponent;
+                defaultMessage = "Value does not have node kind " + o.asResource().getLocalName();
+            } else if (s.getPredicate().equals(SH.pattern)) {
+                final Statement flags = shape.getProperty(SH.flags);
+                query = selectValues(target, value, "isBlank(?value) || !regex(str(?value), "
+                    + literal(o.asLiteral().getLexicalForm())
+                    + (flags != null ? ", " + literal(flags.getString()) : "") + ")");
+                component = SH.PatternConstraintComponent;
+                defaultMessage = "Value does not match pattern \""
+                    + o.asLiteral().getLexicalForm() + "\"";
+            } else if (s.getPredicate().equals(SH.languageIn)) {
+                if (!o.canAs(RDFList.class)) {
+                    return null;
+                }
+                final List<RDFNode> languages = o.as(RDFList.class).asJavaList();
+                query = selectValues(target, value, "!isLiteral(?value) || !("
+                    + (languages.isEmpty() ? "false" : languages.stream()
+                    .map(l -> "langMatches(lang(?value), "
+                        + literal(l.asLiteral().getLexicalForm()) + ")")
+                    .collect(Collectors.joining(" || "))) + ")");
+                component = SH.LanguageInConstraintComponent;
+                defaultMessage = "Language does not match any of "
+                    + languages.stream().map(l -> l.asLiteral().getLexicalForm())
+                    .collect(Collectors.joining(", "));
+            } else if (s.getPredicate().equals(SH.uniqueLang)) {
+                if (!o.asLiteral().getBoolean()) {
+                    continue;
+                }
+                query = "SELECT ?this WHERE { " + target + " " + value
+                    + " FILTER (lang(?value) != \"\") } GROUP BY ?this (lang(?value) AS ?language)"
+                    + " HAVING (COUNT(DISTINCT ?value) > 1)";
+                component = SH.UniqueLangConstraintComponent;
+                defaultMessage = "Language is used more than once";
+            } else {
+                continue;
+            }
+            // parameters of the constraint, substituted in messages like {$minCount}
+            final Map<String, RDFNode> parameters = new LinkedHashMap<>();
+            parameters.put(s.getPredicate().getLocalName(), o);
+            if (s.getPredicate().equals(SH.pattern) && shape.hasProperty(SH.flags)) {
+                parameters.put(SH.flags.getLocalName(), shape.getProperty(SH.flags).getObject());
+            }
+            checks.add(new SparqlCheck(rule, shape, severity, messages.isEmpty()
+                ? Collections.singletonList(shape.getModel().createLiteral(defaultMessage))
+                : messages, parameters, component, path, QueryFactory.create(query)));
+        }
+        return checks;
+    }
+
+    private static SparqlCheck compileSparql(Resource shape, Resource constraint,
+                                             Resource severity, String rule, String target) {
+        final Statement select = constraint.getProperty(SH.select);
+        if (select == null || !select.getObject().isLiteral()
+            || UNSUPPORTED_VARIABLES.matcher(select.getString()).find()) {
+            return null;
+        }
+        final StringBuilder prefixes = new StringBuilder();
+        constraint.listProperties(SH.prefixes).forEachRemaining(p -> {
+            if (p.getObject().isResource()) {
+                p.getResource().listProperties(SH.declare).forEachRemaining(d -> {
+                    final Resource declaration = d.getResource();
+                    if (declaration.hasProperty(SH.prefix)
+                        && declaration.hasProperty(SH.namespace)) {
+                        prefixes.append("PREFIX ")
+                            .append(declaration.getProperty(SH.prefix).getString())
+                            .append(": <")
+                            .append(declaration.getProperty(SH.namespace).getString())
+                            .append(">\n");
+                    }
+                });
+            }
+        });
+        final Query query;
+        try {
+            query = QueryFactory.create(prefixes + select.getString(), Syntax.syntaxARQ);
+        } catch (QueryException e) {
+            return null;
+        }
+        if (!query.isSelectType() || !query.getResultVars().contains("this")
+            || query.hasGroupBy() || query.hasAggregators() || query.hasLimit()
+            || query.hasOffset() || query.hasValues() || !joinsLikePreBinding(query)) {
+            return null;
+        }
+        // the elements are joined in a single group, so that its filters see the focus node
+        final ElementGroup group = new ElementGroup();
+        group.addElement(QueryFactory.create("SELECT * WHERE { " + target + " }")
+            .getQueryPattern());
+        ((ElementGroup) query.getQueryPattern()).getElements().forEach(group::addElement);
+        query.setQueryPattern(group);
+        final List<RDFNode> messages = getMessages(constraint);
+        return new SparqlCheck(rule, shape, severity,
+            messages.isEmpty() ? getMessages(shape) : messages, Collections.emptyMap(),
+            SH.SPARQLConstraintComponent, null, query);
+    }
+
+    /**
+     * Tells whether joining the focus nodes with the query pattern gives the same solutions as
+     * pre-binding $this, which is not the case for subqueries, MINUS, VALUES and SERVICE, for
+     * filters in nested groups, or if $this is assigned.
+     */
+    private static boolean joinsLikePreBinding(Query query) {
+        if (!(query.getQueryPattern() instanceof ElementGroup)) {
+            return false;
+        }
+        final ElementGroup pattern = (ElementGroup) query.getQueryPattern();
+        final long topLevelFilters = pattern.getElements().stream()
+            .filter(e -> e instanceof ElementFilter).count();
+        final boolean[] supported = {true};
+        final long[] filters = {0};
+        ElementWalker.walk(pattern, new ElementVisitorBase() {
+            @Override
+            public void visit(ElementFilter el) {
+                if (++filters[0] > topLevelFilters) {
+                    supported[0] = false;
+                }
+            }
+
+            @Override
+            public void visit(ElementSubQuery el) {
+                supported[0] = false;
+            }
+
+            @Override
+            public void visit(ElementMinus el) {
+                supported[0] = false;
+            }
+
+            @Override
+            public void visit(ElementData el) {
+                supported[0] = false;
+            }
+
+            @Override
+            public void visit(ElementService el) {
+                supported[0] = false;
+            }
+
+            @Override
+            public void visit(ElementBind el) {
+                if (el.getVar().getVarName().equals("this")) {
+                    supported[0] = false;
+                }
+            }
+        });
+        return supported[0];
+    }
+
+    /**
+     * Returns a group graph pattern binding distinct focus nodes to ?this.
+     */
+    private static String getTarget(Resource shape) {
+        final List<String> targets = new ArrayList<>();
+        final String subClassOf = "<" + RDF.type.getURI() + ">/<" + RDFS.subClassOf.getURI() + ">*";
+        if (shape.hasProperty(RDF.type, RDFS.Class) || shape.hasProperty(RDF.type, OWL.Class)) {
+            targets.add("?this " + subClassOf + " " + node(shape.asNode()) + " .");
+        }
+        for (final Statement s : shape.listProperties().toList()) {
+            final Property p = s.getPredicate();
+            final Node o = s.getObject().asNode();
+            if (p.equals(SH.targetClass) && o.isURI()) {
+                targets.add("?this " + subClassOf + " " + node(o) + " .");
+            } else if (p.equals(SH.targetNode)) {
+                targets.add("VALUES ?this { " + node(o) + " }");
+            } else if (p.equals(SH.targetSubjectsOf) && o.isURI()) {
+                targets.add("?this " + node(o) + " ?target .");
+            } else if (p.equals(SH.targetObjectsOf) && o.isURI()) {
+                targets.add("?target " + node(o) + " ?this .");
+            } else if (p.getURI().startsWith(SH.NS + "target")) {
+                return null;
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+        return "{ SELECT DISTINCT ?this WHERE { { "
+            + String.join(" } UNION { ", targets) + " } } }";
+    }
+
+    private static String selectValues(String target, String value, String condition) {
+        return "SELECT DISTINCT ?this ?value WHERE { " + target + " " + value
+            + " FILTER (" + condition + ") }";
+    }
+
+    private static String getNodeKindCondition(RDFNode kind) {
+        if (SH.IRI.equals(kind)) {
+            return "isIRI(?value)";
+        } else if (SH.Literal.equals(kind)) {
+            return "isLiteral(?value)";
+        } else if (SH.BlankNode.equals(kind)) {
+            return "isBlank(?value)";
+        } else if (SH.BlankNodeOrIRI.equals(kind)) {
+            return "isBlank(?value) || isIRI(?value)";
+        } else if (SH.BlankNodeOrLiteral.equals(kind)) {
+            return "isBlank(?value) || isLiteral(?value)";
+        } else if (SH.IRIOrLiteral.equals(kind)) {
+            return "isIRI(?value) || isLiteral(?value)";
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether the shape uses only the given SHACL properties and no DASH constraints or
+     * parameters of constraint components declared in the shapes model.
+     */
+    private static boolean hasOnly(Resource shape, Set<Property> properties) {
+        final Model shapesModel = shape.getModel();
+        for (final Statement s : shape.listProperties().toList()) {
+            final Property p = s.getPredicate();
+            if (p.getURI().startsWith(SH.NS) ? !properties.contains(p)
+                : p.getURI().startsWith(DASH_NAMESPACE)
+                || shapesModel.listSubjectsWithProperty(SH.path, p).toList().stream()
+                .anyMatch(parameter -> shapesModel.contains(null, SH.parameter, parameter))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDeactivated(Resource shape) {
+        final Statement deactivated = shape.getProperty(SH.deactivated);
+        return deactivated != null && deactivated.getObject().isLiteral()
+            && deactivated.getBoolean();
+    }
+
+    private static Resource getSeverity(Resource shape) {
+        final Resource severity = shape.getPropertyResourceValue(SH.severity);
+        return severity != null ? severity : SH.Violation;
+    }
+
+    private static List<RDFNode> getMessages(Resource resource) {
+        return resource.listProperties(SH.message).mapWith(Statement::getObject).toList();
+    }
+
+    private static String node(Node node) {
+        return NodeFmtLib.str(node);
+    }
+
+    private static String literal(String value) {
+        return NodeFmtLib.str(NodeFactory.createLiteral(value));
+    }
+}
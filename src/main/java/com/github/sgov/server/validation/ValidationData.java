@@ -0,0 +1,167 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.exception.SGoVException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.sys.TDBInternal;
+
+/**
+ * Statements of a single vocabulary to be validated.
+ *
+ * <p>Statements are kept in memory until their number exceeds the spill threshold, then they are
+ * moved to a temporary TDB2 dataset on disk, so that large vocabularies validated at the same time
+ * do not exhaust the heap. Statements are loaded by one thread and validated by another, TDB2
+ * transactions are therefore committed once loading is finished and the validating thread opens
+ * its own transaction, which is aborted on {@link #close()} to discard inferred statements.
+ *
+ * <p>Spilling only helps if the validation reads the statements from the dataset. A full RDFS
+ * inference model caches everything it derives on the heap, so data validated with
+ * {@link InferenceMode#FULL} should be created with the spill threshold 0.
+ */
+@Slf4j
+public final class ValidationData implements AutoCloseable {
+
+    private final String name;
+
+    private final long spillThreshold;
+
+    private final Path spillDirectory;
+
+    private Model memoryModel = ModelFactory.createDefaultModel();
+
+    private Graph target = memoryModel.getGraph();
+
+    private long size;
+
+    private Path directory;
+
+    private Dataset dataset;
+
+    private boolean opened;
+
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param name           name of the data, used in log messages
+     * @param spillThreshold number of statements above which they are moved to disk, 0 to keep
+     *                       them in memory
+     * @param spillDirectory directory in which temporary datasets are created
+     */
+    public ValidationData(String name, long spillThreshold, Path spillDirectory) {
+        this.name = name;
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Adds a statement. Must not be called once {@link #finishLoading()} has been called.
+     */
+    public void add(Triple triple) {
+        target.add(triple);
+        // the size of an in-memory graph is kept by the graph, duplicates are not counted
+        if (spillThreshold > 0 && dataset == null
+            && memoryModel.getGraph().size() > spillThreshold) {
+            spill();
+        }
+    }
+
+    private void spill() {
+        log.info("- {} has more than {} statements, moving them to disk", name, spillThreshold);
+        try {
+            directory = Files.createTempDirectory(spillDirectory, "validation-");
+        } catch (IOException e) {
+            throw new SGoVException("Unable to create a temporary validation dataset.", e);
+        }
+        dataset = TDB2Factory.connectDataset(directory.toString());
+        dataset.begin(ReadWrite.WRITE);
+        target = dataset.getDefaultModel().getGraph();
+        memoryModel.getGraph().find(Node.ANY, Node.ANY, Node.ANY).forEachRemaining(target::add);
+        memoryModel = null;
+    }
+
+    /**
+     * Commits the statements loaded into a dataset on disk.
+     */
+    public void finishLoading() {
+        size = target.size();
+        if (dataset != null && dataset.isInTransaction()) {
+            dataset.commit();
+        }
+    }
+
+    public boolean isSpilled() {
+        return dataset != null;
+    }
+
+    /**
+     * Returns the number of distinct statements, known once {@link #finishLoading()} has been
+     * called.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the model to validate, opening a transaction of the calling thread if the
+     * statements are on disk. The model is valid until {@link #close()}.
+     *
+     * @throws SGoVException if the data have already been closed
+     */
+    public synchronized Model getModel() {
+        if (closed) {
+            throw new SGoVException("Validation data of " + name + " have been discarded.");
+        }
+        opened = true;
+        if (dataset == null) {
+            return memoryModel;
+        }
+        dataset.begin(ReadWrite.WRITE);
+        return dataset.getDefaultModel();
+    }
+
+    /**
+     * Releases the data unless {@link #getModel()} has been called, in which case the caller of
+     * {@link #getModel()} is responsible for closing them.
+     */
+    public synchronized void discardIfUnused() {
+        if (!opened) {
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        memoryModel = null;
+        target = null;
+        if (dataset == null) {
+            return;
+        }
+        if (dataset.isInTransaction()) {
+            dataset.abort();
+            dataset.end();
+        }
+        TDBInternal.expel(dataset.asDatasetGraph());
+        try {
+            FileUtils.deleteDirectory(directory.toFile());
+        } catch (IOException e) {
+            log.warn("Unable to delete temporary validation dataset {}", directory, e);
+        }
+    }
+}
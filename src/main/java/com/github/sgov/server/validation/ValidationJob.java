@@ -0,0 +1,143 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import lombok.Getter;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Validation of a workspace running in the background.
+ */
+@Getter
+public class ValidationJob implements ValidationListener {
+
+    /**
+     * State of a validation job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, FINISHED, FAILED, CANCELLED
+    }
+
+    private final String id;
+
+    private final URI workspace;
+
+    private final ValidationOptions options;
+
+    private final Date created = new Date();
+
+    private volatile Set<URI> vocabularyContexts = Collections.emptySet();
+
+    private final Set<URI> validatedVocabularyContexts = ConcurrentHashMap.newKeySet();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile ValidationReport report;
+
+    private volatile String error;
+
+    private volatile Date finished;
+
+    private volatile Future<?> future;
+
+    /**
+     * Constructor.
+     */
+    public ValidationJob(String id, URI workspace, ValidationOptions options) {
+        this.id = id;
+        this.workspace = workspace;
+        this.options = options;
+    }
+
+    /**
+     * Sets the future of the submitted job, cancelling it if the job was cancelled before it was
+     * submitted, so that no worker thread is held by a cancelled job.
+     *
+     * @param future future returned by the job executor
+     */
+    public synchronized void setFuture(Future<?> future) {
+        this.future = future;
+        if (status == Status.CANCELLED) {
+            future.cancel(true);
+        }
+    }
+
+    public boolean isDone() {
+        return finished != null;
+    }
+
+    @Override
+    public void started(Collection<URI> vocabularyContexts) {
+        this.vocabularyContexts = Collections.unmodifiableSet(
+            new LinkedHashSet<>(vocabularyContexts));
+    }
+
+    @Override
+    public void vocabularyValidated(URI vocabularyContext, ValidationReport report) {
+        validatedVocabularyContexts.add(vocabularyContext);
+    }
+
+    /**
+     * Marks the job as running.
+     *
+     * @return false if the job was cancelled before it started and should not run at all
+     */
+    public synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        return true;
+    }
+
+    /**
+     * Marks the job as successfully finished.
+     *
+     * @param report resulting validation report
+     */
+    public synchronized void finish(ValidationReport report) {
+        if (status == Status.RUNNING) {
+            this.report = report;
+            complete(Status.FINISHED);
+        }
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param e cause of the failure
+     */
+    public synchronized void fail(Throwable e) {
+        if (status == Status.RUNNING) {
+            this.error = e.getMessage();
+            complete(Status.FAILED);
+        }
+    }
+
+    /**
+     * Cancels the job, interrupting it if it is running.
+     *
+     * @return false if the job had already been done
+     */
+    public synchronized boolean cancel() {
+        if (isDone()) {
+            return false;
+        }
+        complete(Status.CANCELLED);
+        if (future != null) {
+            future.cancel(true);
+        }
+        return true;
+    }
+
+    private void complete(Status status) {
+        this.status = status;
+        this.finished = new Date();
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collection;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Receives progress of a validation request.
+ *
+ * <p>Vocabularies are validated concurrently, so implementations must be thread-safe.
+ */
+public interface ValidationListener {
+
+    /**
+     * Listener ignoring all events.
+     */
+    ValidationListener NONE = new ValidationListener() {
+    };
+
+    /**
+     * Called once before any vocabulary is validated.
+     *
+     * @param vocabularyContexts IRIs of all vocabulary contexts to be validated
+     */
+    default void started(Collection<URI> vocabularyContexts) {
+    }
+
+    /**
+     * Called whenever validation of a single vocabulary context finishes.
+     *
+     * @param vocabularyContext IRI of the validated vocabulary context
+     * @param report            validation report of the vocabulary context
+     */
+    default void vocabularyValidated(URI vocabularyContext, ValidationReport report) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.sgov.server.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Micrometer metrics of vocabulary validation, exposed through the actuator metrics endpoint once
+ * it is included in the web exposure of the management endpoints.
+ *
+ * <p>Meters are tagged by validation profile and, for rule timings, by rule file name, both of
+ * which have a bounded number of values. Vocabularies are not used as tags, their individual
+ * timings are logged instead.
+ */
+@Component
+public class ValidationMetrics {
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ValidationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records fetching statements of a batch of vocabularies.
+     *
+     * @param statements number of fetched statements
+     * @param nanos      time spent fetching
+     */
+    public void recordFetch(long statements, long nanos) {
+        Timer.builder("sgov.validation.fetch")
+            .description("Time spent fetching statements of validated vocabularies")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("sgov.validation.fetch.statements")
+            .description("Statements fetched by a single query")
+            .register(registry)
+            .record(statements);
+    }
+
+    /**
+     * Records validation of a single vocabulary, excluding fetching its statements.
+     *
+     * @param profile    name of the validation profile
+     * @param statements number of validated statements
+     * @param nanos      time spent validating
+     * @param report     resulting validation report
+     */
+    public void recordVocabulary(String profile, long statements, long nanos,
+                                 ValidationReport report) {
+        Timer.builder("sgov.validation.vocabulary")
+            .description("Time spent validating a single vocabulary")
+            .tag("profile", profile)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("sgov.validation.vocabulary.statements")
+            .description("Statements of a single validated vocabulary")
+            .tag("profile", profile)
+            .register(registry)
+            .record(statements);
+        final Map<String, Long> counts = report.results().stream().collect(
+            Collectors.groupingBy(r -> r.getSeverity().getLocalName(), Collectors.counting()));
+        counts.forEach((severity, count) -> Counter.builder("sgov.validation.results")
+            .description("Validation results produced")
+            .tag("profile", profile)
+            .tag("severity", severity)
+            .register(registry)
+            .increment(count));
+    }
+
+    /**
+     * Records time spent by the shapes of a single rule file.
+     *
+     * @param profile name of the validation profile
+     * @param rule    rule file name
+     * @param nanos   time spent
+     */
+    public void recordRule(String profile, String rule, long nanos) {
+        Timer.builder("sgov.validation.rule")
+            .description("Time spent by the shapes of a single rule file")
+            .tag("profile", profile)
+            .tag("rule", rule)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
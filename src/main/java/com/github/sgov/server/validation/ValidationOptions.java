@@ -0,0 +1,36 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Set;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Options of a single validation request.
+ */
+@Data
+@Accessors(chain = true)
+public class ValidationOptions {
+
+    /**
+     * Name of the validation profile, null for the configured default profile.
+     */
+    private String profile;
+
+    /**
+     * Whether only entities recorded in the change tracking contexts are validated.
+     */
+    private boolean changesOnly;
+
+    /**
+     * Whether validation of further vocabularies stops once a violation is found.
+     */
+    private boolean failFast;
+
+    /**
+     * IRIs of the vocabularies, or of their contexts, to be validated when validating a
+     * workspace. All vocabularies of the workspace if empty.
+     */
+    private Set<URI> vocabularies = Collections.emptySet();
+}
@@ -0,0 +1,163 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Order in which vocabulary contexts of a workspace are validated, given by the vocabularies
+ * they import (importuje-slovník).
+ *
+ * <p>A vocabulary context depends on the contexts of the same validation whose vocabularies it
+ * imports, directly or transitively. Contexts are split into levels, each context is in a later
+ * level than all its dependencies, so that the statements loaded for a dependency can be reused
+ * when validating its dependents. Contexts in a cycle of imports are put in the last level.
+ */
+public final class ValidationPlan {
+
+    private final List<List<URI>> levels;
+
+    private final Map<URI, Integer> levelOf = new HashMap<>();
+
+    private final Map<URI, Set<URI>> dependencies = new HashMap<>();
+
+    private final Map<URI, Set<String>> publishedImports = new HashMap<>();
+
+    private final Map<URI, Integer> lastUse = new HashMap<>();
+
+    private ValidationPlan(List<List<URI>> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Creates the plan.
+     *
+     * @param vocabularies  map from vocabulary context IRI to the IRI of its vocabulary
+     * @param directImports map from vocabulary context IRI to the IRIs of the vocabularies it
+     *                      imports directly, contexts without imports may be missing
+     * @return validation plan
+     */
+    public static ValidationPlan create(Map<URI, URI> vocabularies,
+                                        Map<URI, Set<String>> directImports) {
+        final Map<String, URI> contextOf = new HashMap<>();
+        vocabularies.forEach((vc, vocabulary) -> {
+            if (vocabulary != null) {
+                contextOf.put(vocabulary.toString(), vc);
+            }
+        });
+        final Map<URI, Set<URI>> direct = new HashMap<>();
+        vocabularies.keySet().forEach(vc -> direct.put(vc,
+            directImports.getOrDefault(vc, Collections.emptySet()).stream()
+                .map(contextOf::get)
+                .filter(c -> c != null && !c.equals(vc))
+                .collect(Collectors.toCollection(LinkedHashSet::new))));
+
+        // Kahn's algorithm, contexts are sorted within a level to keep the order stable
+        final List<List<URI>> levels = new ArrayList<>();
+        final Set<URI> planned = new HashSet<>();
+        List<URI> level = ready(direct, planned);
+        while (!level.isEmpty()) {
+            levels.add(level);
+            planned.addAll(level);
+            level = ready(direct, planned);
+        }
+        if (planned.size() < vocabularies.size()) {
+            levels.add(vocabularies.keySet().stream()
+                .filter(vc -> !planned.contains(vc))
+                .sorted(Comparator.comparing(URI::toString))
+                .collect(Collectors.toList()));
+        }
+
+        final ValidationPlan plan = new ValidationPlan(Collections.unmodifiableList(levels));
+        for (int i = 0; i < levels.size(); i++) {
+            for (final URI vc : levels.get(i)) {
+                plan.levelOf.put(vc, i);
+            }
+        }
+        vocabularies.keySet().forEach(vc -> {
+            final Set<URI> closure = closure(vc, direct);
+            plan.dependencies.put(vc, Collections.unmodifiableSet(closure));
+            final Set<String> published = new HashSet<>();
+            for (final URI c : union(vc, closure)) {
+                directImports.getOrDefault(c, Collections.emptySet()).stream()
+                    .filter(i -> !contextOf.containsKey(i))
+                    .forEach(published::add);
+            }
+            plan.publishedImports.put(vc, Collections.unmodifiableSet(published));
+            closure.forEach(d -> plan.lastUse.merge(d, plan.levelOf.get(vc), Math::max));
+        });
+        return plan;
+    }
+
+    private static List<URI> ready(Map<URI, Set<URI>> direct, Set<URI> planned) {
+        return direct.entrySet().stream()
+            .filter(e -> !planned.contains(e.getKey()) && planned.containsAll(e.getValue()))
+            .map(Map.Entry::getKey)
+            .sorted(Comparator.comparing(URI::toString))
+            .collect(Collectors.toList());
+    }
+
+    private static Set<URI> closure(URI vc, Map<URI, Set<URI>> direct) {
+        final Set<URI> closure = new LinkedHashSet<>();
+        final List<URI> frontier = new ArrayList<>(direct.get(vc));
+        while (!frontier.isEmpty()) {
+            final URI c = frontier.remove(frontier.size() - 1);
+            if (!c.equals(vc) && closure.add(c)) {
+                frontier.addAll(direct.get(c));
+            }
+        }
+        return closure;
+    }
+
+    private static Set<URI> union(URI vc, Set<URI> others) {
+        final Set<URI> union = new LinkedHashSet<>(others);
+        union.add(vc);
+        return union;
+    }
+
+    /**
+     * Returns the vocabulary contexts split into levels, in the order of validation.
+     */
+    public List<List<URI>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns the vocabulary contexts the given one depends on, directly or transitively.
+     */
+    public Set<URI> getDependencies(URI vocabularyContext) {
+        return dependencies.getOrDefault(vocabularyContext, Collections.emptySet());
+    }
+
+    /**
+     * Returns the vocabularies imported by the given vocabulary context or by its dependencies
+     * which are not validated together with it, i.e. published vocabularies.
+     */
+    public Set<String> getPublishedImports(URI vocabularyContext) {
+        return publishedImports.getOrDefault(vocabularyContext, Collections.emptySet());
+    }
+
+    /**
+     * Tells whether statements of the given vocabulary context are needed after it is validated,
+     * i.e. whether some other vocabulary context depends on it.
+     */
+    public boolean hasDependents(URI vocabularyContext) {
+        return lastUse.containsKey(vocabularyContext);
+    }
+
+    /**
+     * Tells whether statements of the given vocabulary context are no longer needed once the
+     * given level has been validated.
+     */
+    public boolean isUnusedAfter(URI vocabularyContext, int level) {
+        return lastUse.getOrDefault(vocabularyContext, -1) <= level;
+    }
+}
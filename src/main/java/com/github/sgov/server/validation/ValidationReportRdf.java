@@ -0,0 +1,155 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.ValidationResultSeverityComparator;
+import com.github.sgov.server.util.Vocabulary;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.topbraid.shacl.validation.ResourceValidationResult;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+/**
+ * Converts validation reports of individual vocabulary contexts to RDF and back, so that they
+ * can be stored in report graphs of the repository.
+ *
+ * <p>The report graph IRI identifies the report itself. Besides the SHACL report, the graph
+ * records the validated vocabulary context, the validation profile and the fingerprints the
+ * report was computed for: the content fingerprint of the vocabulary context and the content
+ * fingerprint of each imported vocabulary, see {@link GraphFingerprints}. A stored report may be
+ * reused only while all of them match.
+ */
+public final class ValidationReportRdf {
+
+    private static final String REPORT_GRAPH_SUFFIX = "/zpráva-validace/";
+
+    private ValidationReportRdf() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns the IRI of the graph holding the report of the given vocabulary context.
+     *
+     * @param vocabularyContext vocabulary context IRI
+     * @param profile           name of the validation profile
+     * @return report graph IRI
+     */
+    public static String getReportGraph(URI vocabularyContext, String profile) {
+        return vocabularyContext + REPORT_GRAPH_SUFFIX + profile;
+    }
+
+    /**
+     * Converts the report to RDF. Shapes, paths and values which are blank nodes of the shapes
+     * graph are left out, as they would not identify anything outside of it.
+     *
+     * @param reportGraph       report graph IRI
+     * @param vocabularyContext validated vocabulary context IRI
+     * @param profile           name of the validation profile
+     * @param fingerprint       content fingerprint of the vocabulary context
+     * @param imports           map from imported vocabulary IRI to its content fingerprint
+     * @param report            validation report
+     * @return model with the report
+     */
+    public static Model toModel(String reportGraph, URI vocabularyContext, String profile,
+                                String fingerprint, Map<String, String> imports,
+                                ValidationReport report) {
+        final Model model = ModelFactory.createDefaultModel();
+        final Resource r = model.createResource(reportGraph)
+            .addProperty(RDF.type, SH.ValidationReport)
+            .addProperty(RDF.type, model.createResource(Vocabulary.s_c_zprava_validace))
+            .addLiteral(SH.conforms, report.conforms())
+            .addProperty(model.createProperty(Vocabulary.s_p_validuje_kontext),
+                model.createResource(vocabularyContext.toString()))
+            .addProperty(model.createProperty(Vocabulary.s_p_ma_profil_validace), profile)
+            .addProperty(model.createProperty(Vocabulary.s_p_ma_otisk_obsahu), fingerprint);
+        final Property importFingerprint = model.createProperty(Vocabulary.s_p_ma_otisk_importu);
+        imports.forEach((vocabulary, content) -> r.addProperty(importFingerprint,
+            model.createResource()
+                .addProperty(model.createProperty(Vocabulary.s_p_vychazi_z_verze),
+                    model.createResource(vocabulary))
+                .addProperty(model.createProperty(Vocabulary.s_p_ma_otisk_obsahu), content)));
+        for (final ValidationResult result : report.results()) {
+            final Resource res = model.createResource()
+                .addProperty(RDF.type, SH.ValidationResult)
+                .addProperty(SH.resultSeverity, result.getSeverity())
+                .addProperty(SH.focusNode, result.getFocusNode());
+            result.getMessages().forEach(m -> res.addProperty(SH.resultMessage, m));
+            addIfNotBlank(res, SH.value, result.getValue());
+            addIfNotBlank(res, SH.resultPath, result.getPath());
+            addIfNotBlank(res, SH.sourceShape, result.getSourceShape());
+            addIfNotBlank(res, SH.sourceConstraintComponent,
+                result.getSourceConstraintComponent());
+            r.addProperty(SH.result, res);
+        }
+        return model;
+    }
+
+    private static void addIfNotBlank(Resource subject, Property property, RDFNode value) {
+        if (value != null && !value.isAnon()) {
+            subject.addProperty(property, value);
+        }
+    }
+
+    /**
+     * Returns the content fingerprint the stored report was computed for.
+     *
+     * @param graph       statements of the report graph
+     * @param reportGraph report graph IRI
+     * @return content fingerprint, or null if the graph holds no report
+     */
+    public static String getFingerprint(Graph graph, String reportGraph) {
+        final Model model = ModelFactory.createModelForGraph(graph);
+        final Statement s = model.getResource(reportGraph)
+            .getProperty(model.createProperty(Vocabulary.s_p_ma_otisk_obsahu));
+        return s == null ? null : s.getString();
+    }
+
+    /**
+     * Returns the imported vocabularies the stored report was computed with.
+     *
+     * @param graph       statements of the report graph
+     * @param reportGraph report graph IRI
+     * @return map from imported vocabulary IRI to its content fingerprint
+     */
+    public static Map<String, String> getImports(Graph graph, String reportGraph) {
+        final Model model = ModelFactory.createModelForGraph(graph);
+        final Property version = model.createProperty(Vocabulary.s_p_vychazi_z_verze);
+        final Property fingerprint = model.createProperty(Vocabulary.s_p_ma_otisk_obsahu);
+        final Map<String, String> imports = new HashMap<>();
+        model.getResource(reportGraph)
+            .listProperties(model.createProperty(Vocabulary.s_p_ma_otisk_importu))
+            .forEachRemaining(s -> {
+                final Resource i = s.getResource();
+                imports.put(i.getPropertyResourceValue(version).getURI(),
+                    i.getProperty(fingerprint).getString());
+            });
+        return imports;
+    }
+
+    /**
+     * Reads the stored report.
+     *
+     * @param graph       statements of the report graph
+     * @param reportGraph report graph IRI
+     * @return report with results sorted by severity
+     */
+    public static ValidationReport toReport(Graph graph, String reportGraph) {
+        final Resource r = ModelFactory.createModelForGraph(graph).getResource(reportGraph);
+        final List<ValidationResult> results = new ArrayList<>();
+        r.listProperties(SH.result)
+            .forEachRemaining(s -> results.add(new ResourceValidationResult(s.getResource())));
+        results.sort(new ValidationResultSeverityComparator());
+        return new MergedValidationReport(r.getProperty(SH.conforms).getBoolean(), results);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.topbraid.shacl.validation.ValidationReport;
+
+/**
+ * Keeps validation reports of individual vocabulary contexts, so that vocabularies which did
+ * not change since their last validation are not validated again.
+ *
+ * <p>A report is reused only if it was produced by the same validation profile for the same
+ * content fingerprint of the vocabulary context. Least recently used reports are dropped once
+ * {@link ValidationConf#getResultCacheSize()} is exceeded.
+ */
+@Component
+public class ValidationResultCache {
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Constructor.
+     */
+    @Autowired
+    public ValidationResultCache(ValidationConf validationConf) {
+        final int maxSize = validationConf.getResultCacheSize();
+        this.entries = Collections.synchronizedMap(
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            });
+    }
+
+    private static String key(URI vocabularyContext, String profile) {
+        return profile + " " + vocabularyContext;
+    }
+
+    /**
+     * Returns the cached report of the given vocabulary context.
+     *
+     * @param vocabularyContext vocabulary context IRI
+     * @param profile           name of the validation profile
+     * @param fingerprint       current content fingerprint of the vocabulary context
+     * @return cached report, or null if there is none for the given fingerprint
+     */
+    public ValidationReport get(URI vocabularyContext, String profile, String fingerprint) {
+        final Entry entry = entries.get(key(vocabularyContext, profile));
+        if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+            return null;
+        }
+        return entry.report;
+    }
+
+    /**
+     * Stores the report of the given vocabulary context.
+     *
+     * @param vocabularyContext vocabulary context IRI
+     * @param profile           name of the validation profile
+     * @param fingerprint       content fingerprint the report was computed for
+     * @param report            validation report
+     */
+    public void put(URI vocabularyContext, String profile, String fingerprint,
+                    ValidationReport report) {
+        entries.put(key(vocabularyContext, profile), new Entry(fingerprint, report));
+    }
+
+    private static class Entry {
+
+        private final String fingerprint;
+
+        private final ValidationReport report;
+
+        Entry(String fingerprint, ValidationReport report) {
+            this.fingerprint = fingerprint;
+            this.report = report;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.sgov.server.validation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Validations of the vocabularies of a single request, running on the shared validation
+ * executor.
+ *
+ * <p>At most the given number of validations run at the same time and all of them have to finish
+ * before the deadline of the request. Validations are run as {@link FutureTask}s, so that
+ * {@link #cancel()} interrupts the running ones and frees their threads, unlike cancelling a
+ * {@link CompletableFuture}, which does not affect its computation.
+ */
+public final class ValidationTasks {
+
+    private final Executor executor;
+
+    private final Semaphore permits;
+
+    private final long deadline;
+
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+
+    private boolean cancelled;
+
+    /**
+     * Constructor.
+     *
+     * @param executor   executor running the validations
+     * @param maxRunning maximal number of validations running at the same time
+     * @param timeout    time all validations have to finish in, counted from now
+     */
+    public ValidationTasks(Executor executor, int maxRunning, Duration timeout) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxRunning);
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Waits until fewer than the maximal number of validations run and submits the validation.
+     *
+     * @param validation validation to run
+     * @param <T>        result of the validation
+     * @return future completed with the result of the validation, or exceptionally if it fails
+     *     or is cancelled
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws TimeoutException     if the deadline passes while waiting
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> validation)
+        throws InterruptedException, TimeoutException {
+        if (!permits.tryAcquire(getRemainingNanos(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException();
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final FutureTask<T> task = new FutureTask<>(validation::get) {
+            @Override
+            protected void done() {
+                permits.release();
+                try {
+                    result.complete(get());
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (CancellationException e) {
+                    result.completeExceptionally(e);
+                } catch (InterruptedException e) {
+                    // not reached, the task is done
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        synchronized (tasks) {
+            if (cancelled) {
+                task.cancel(false);
+                return result;
+            }
+            tasks.add(task);
+        }
+        executor.execute(task);
+        return result;
+    }
+
+    /**
+     * Waits until the given validations finish.
+     *
+     * @param results futures returned by {@link #submit(Supplier)}
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws TimeoutException     if the deadline passes while waiting
+     * @throws ExecutionException   if some validation fails, with its exception as the cause
+     */
+    public void await(Collection<? extends CompletableFuture<?>> results)
+        throws InterruptedException, TimeoutException, ExecutionException {
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .get(getRemainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancels all validations, interrupting the running ones. Validations submitted afterwards
+     * are cancelled right away.
+     */
+    public void cancel() {
+        synchronized (tasks) {
+            cancelled = true;
+            tasks.forEach(t -> t.cancel(true));
+            tasks.clear();
+        }
+    }
+
+    private long getRemainingNanos() {
+        return deadline - System.nanoTime();
+    }
+}
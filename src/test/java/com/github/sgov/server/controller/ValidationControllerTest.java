@@ -0,0 +1,113 @@
+package com.github.sgov.server.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.github.sgov.server.exception.MalformedDataException;
+import com.github.sgov.server.exception.PayloadTooLargeException;
+import com.github.sgov.server.service.WorkspaceService;
+import com.github.sgov.server.validation.MergedValidationReport;
+import com.github.sgov.server.validation.ValidationOptions;
+import java.net.URI;
+import java.util.Collections;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class ValidationControllerTest extends BaseControllerTestRunner {
+
+    private static final String TURTLE =
+        "<https://example.org/term> a <https://example.org/Term> .";
+
+    private final URI vocabularyContextUri = URI.create("https://example.org/context");
+
+    @InjectMocks
+    private ValidationController sut;
+
+    @Mock
+    private WorkspaceService workspaceService;
+
+    private final ValidationReport report =
+        new MergedValidationReport(true, Collections.emptyList());
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        super.setUp(sut);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    void validateCandidatePassesTurtleToService() throws Exception {
+        BDDMockito.given(workspaceService.validateCandidate(any(), eq(Lang.TURTLE), any(),
+            eq(false), any())).willReturn(report);
+
+        mockMvc.perform(post("/validate")
+            .contentType("text/turtle")
+            .content(TURTLE))
+            .andExpect(status().isOk());
+        BDDMockito.verify(workspaceService).validateCandidate(any(), eq(Lang.TURTLE),
+            eq(null), eq(false), eq(new ValidationOptions()));
+    }
+
+    @Test
+    void validateCandidateWithUnionPassesVocabularyContextToService() throws Exception {
+        final ValidationOptions options = new ValidationOptions().setProfile("full");
+        BDDMockito.given(workspaceService.validateCandidate(any(), eq(Lang.JSONLD),
+            eq(vocabularyContextUri), eq(true), eq(options))).willReturn(report);
+
+        mockMvc.perform(post("/validate")
+            .contentType("application/ld+json")
+            .param("vocabularyContextIri", vocabularyContextUri.toString())
+            .param("union", "true")
+            .param("profile", "full")
+            .content("{}"))
+            .andExpect(status().isOk());
+        BDDMockito.verify(workspaceService).validateCandidate(any(), eq(Lang.JSONLD),
+            eq(vocabularyContextUri), eq(true), eq(options));
+    }
+
+    @Test
+    void validateCandidateWithInvalidDataReturns400() throws Exception {
+        BDDMockito.given(workspaceService.validateCandidate(any(), any(), any(), eq(false),
+            any())).willThrow(new MalformedDataException("Invalid Turtle data"));
+
+        mockMvc.perform(post("/validate")
+            .contentType("text/turtle")
+            .content("<broken"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validateCandidateWithTooLargeDataReturns413() throws Exception {
+        BDDMockito.given(workspaceService.validateCandidate(any(), any(), any(), eq(false),
+            any())).willThrow(new PayloadTooLargeException("Candidate statements exceed limit"));
+
+        mockMvc.perform(post("/validate")
+            .contentType("text/turtle")
+            .content(TURTLE))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void validateCandidateWithUnsupportedMediaTypeReturns415() throws Exception {
+        mockMvc.perform(post("/validate")
+            .contentType("application/n-quads")
+            .content(TURTLE))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+}
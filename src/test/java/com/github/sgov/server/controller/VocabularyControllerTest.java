@@ -0,0 +1,139 @@
+package com.github.sgov.server.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.github.sgov.server.config.conf.ApplicationConf;
+import com.github.sgov.server.controller.dto.VocabularyDto;
+import com.github.sgov.server.controller.dto.VocabularyWithWorkspacesDto;
+import com.github.sgov.server.service.repository.VocabularyCatalog;
+import com.github.sgov.server.service.repository.VocabularyRepositoryService;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class VocabularyControllerTest extends BaseControllerTestRunner {
+
+    private final URI vocabulary1 = URI.create("https://example.org/vocabulary/1");
+
+    private final URI vocabulary2 = URI.create("https://example.org/vocabulary/2");
+
+    @InjectMocks
+    private VocabularyController sut;
+
+    @Mock
+    private VocabularyRepositoryService vocabularyService;
+
+    @Spy
+    private ApplicationConf applicationConf = new ApplicationConf();
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        super.setUp(sut);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    private static VocabularyWithWorkspacesDto vocabulary(URI uri, String label) {
+        final VocabularyDto dto = new VocabularyDto();
+        dto.setUri(uri);
+        dto.setLabel(label);
+        return new VocabularyWithWorkspacesDto(dto);
+    }
+
+    private static String cursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void findAllWithLimitReturnsPageAndLinksNextPage() throws Exception {
+        BDDMockito.given(vocabularyService.getVocabulariesWithWorkspacesAsDtos("cs", null, 2,
+            false, false)).willReturn(Arrays.asList(vocabulary(vocabulary1, "Slovník 1"),
+            vocabulary(vocabulary2, "Slovník 2")));
+
+        mockMvc.perform(get("/vocabularies")
+            .param("limit", "1")
+            .param("fields", "uri", "label")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].uri", is(vocabulary1.toString())))
+            .andExpect(jsonPath("$[0].label", is("Slovník 1")))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor="
+                + cursor(VocabularyCatalog.Entry.key("Slovník 1", vocabulary1)))))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
+    }
+
+    @Test
+    void findAllWithCursorFetchesVocabulariesFollowingIt() throws Exception {
+        final String after = VocabularyCatalog.Entry.key("Slovník 1", vocabulary1);
+        BDDMockito.given(vocabularyService.getVocabulariesWithWorkspacesAsDtos("cs", after, 2,
+            false, false)).willReturn(Collections.singletonList(
+            vocabulary(vocabulary2, "Slovník 2")));
+
+        mockMvc.perform(get("/vocabularies")
+            .param("limit", "1")
+            .param("cursor", cursor(after))
+            .param("fields", "uri")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].uri", is(vocabulary2.toString())))
+            .andExpect(jsonPath("$[0].label").doesNotExist())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void findAllReducesLimitToMaxPageSize() throws Exception {
+        applicationConf.setMaxPageSize(1);
+        BDDMockito.given(vocabularyService.getVocabulariesWithWorkspacesAsDtos("cs", null, 2,
+            false, false)).willReturn(Arrays.asList(vocabulary(vocabulary1, "Slovník 1"),
+            vocabulary(vocabulary2, "Slovník 2")));
+
+        mockMvc.perform(get("/vocabularies")
+            .param("limit", "100")
+            .param("fields", "uri")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=")));
+    }
+
+    @Test
+    void findAllWithNonPositiveLimitIsRejected() throws Exception {
+        mockMvc.perform(get("/vocabularies")
+            .param("limit", "0")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isConflict());
+        BDDMockito.verify(vocabularyService, BDDMockito.never())
+            .getVocabulariesWithWorkspacesAsDtos(any(), any(), anyInt(), anyBoolean(),
+                anyBoolean());
+    }
+}
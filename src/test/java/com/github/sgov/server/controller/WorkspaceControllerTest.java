@@ -1,19 +1,24 @@
 package com.github.sgov.server.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
+import com.github.sgov.server.config.conf.ApplicationConf;
+import com.github.sgov.server.controller.dto.WorkspaceDto;
 import com.github.sgov.server.exception.FeatureDisabledException;
 import com.github.sgov.server.exception.NotFoundException;
 import com.github.sgov.server.model.Workspace;
 import com.github.sgov.server.service.WorkspacePublicationService;
 import com.github.sgov.server.service.WorkspaceService;
+import com.github.sgov.server.validation.ValidationOptions;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,6 +30,8 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.topbraid.shacl.validation.ValidationReport;
 import org.topbraid.shacl.validation.ValidationResult;
@@ -42,6 +49,9 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
     @Mock
     private WorkspacePublicationService workspacePublicationService;
 
+    @Spy
+    private ApplicationConf applicationConf = new ApplicationConf();
+
     private ValidationReport report;
 
     private AutoCloseable mocks;
@@ -87,9 +97,27 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
             .andExpect(jsonPath("$[1].uri", is("http://example.org/test2")));
     }
 
+    @Test
+    void getAllWithLimitAndFieldsReturnsPageOfLabels() throws Exception {
+        BDDMockito.given(workspaceService.findAllAsDtos(null, 2))
+            .willReturn(Arrays.asList(
+                new WorkspaceDto(URI.create("http://example.org/test1"), "Test 1"),
+                new WorkspaceDto(URI.create("http://example.org/test2"), "Test 2")));
+
+        mockMvc.perform(get("/workspaces")
+            .param("limit", "1")
+            .param("fields", "uri")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].uri", is("http://example.org/test1")))
+            .andExpect(jsonPath("$[0].label").doesNotExist())
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=")));
+    }
+
     @Test
     void validateWithIriSucceeds() throws Exception {
-        BDDMockito.given(workspaceService.validate((URI) any()))
+        BDDMockito.given(workspaceService.validate((URI) any(), any()))
             .willReturn(report);
 
         mockMvc.perform(get("/workspaces/test/validate")
@@ -100,7 +128,7 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
 
     @Test
     void validateWithNonExistingIriReturns404() throws Exception {
-        BDDMockito.given(workspaceService.validate(workspaceUri))
+        BDDMockito.given(workspaceService.validate(workspaceUri, new ValidationOptions()))
             .willThrow(new NotFoundException(""));
 
         mockMvc.perform(get("/workspaces/test/validate")
@@ -109,6 +137,34 @@ class WorkspaceControllerTest extends BaseControllerTestRunner {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    void validateWithProfilePassesProfileToService() throws Exception {
+        final ValidationOptions options = new ValidationOptions().setProfile("glossary-only");
+        BDDMockito.given(workspaceService.validate(workspaceUri, options))
+            .willReturn(report);
+
+        mockMvc.perform(get("/workspaces/test/validate")
+            .param("namespace", "https://example.org/")
+            .param("profile", "glossary-only")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk());
+        BDDMockito.verify(workspaceService).validate(workspaceUri, options);
+    }
+
+    @Test
+    void validateWithChangesOnlyPassesOptionToService() throws Exception {
+        final ValidationOptions options = new ValidationOptions().setChangesOnly(true);
+        BDDMockito.given(workspaceService.validate(workspaceUri, options))
+            .willReturn(report);
+
+        mockMvc.perform(get("/workspaces/test/validate")
+            .param("namespace", "https://example.org/")
+            .param("changesOnly", "true")
+            .header("Accept-language", "cs"))
+            .andExpect(status().isOk());
+        BDDMockito.verify(workspaceService).validate(workspaceUri, options);
+    }
+
     @Test
     void publishWithFeatureDemoReturns404() throws Exception {
         BDDMockito.given(workspacePublicationService.publish(workspaceUri))
@@ -0,0 +1,59 @@
+package com.github.sgov.server.controller.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.sgov.server.validation.MergedValidationReport;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationReportSerializerTest {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper();
+        final SimpleModule module = new SimpleModule();
+        module.addSerializer(ValidationReport.class, new ValidationReportSerializer());
+        mapper.registerModule(module);
+    }
+
+    @Test
+    void serializeWritesOnlyMessagesInRequestLanguage() throws Exception {
+        final ValidationResult result = Mockito.mock(ValidationResult.class);
+        Mockito.when(result.getSeverity()).thenReturn(SH.Warning);
+        Mockito.when(result.getFocusNode())
+            .thenReturn(ResourceFactory.createResource("https://example.org/term"));
+        Mockito.when(result.getMessages()).thenReturn(Arrays.<RDFNode>asList(
+            ResourceFactory.createLangLiteral("Missing label", "en"),
+            ResourceFactory.createLangLiteral("Chybí název", "cs")));
+
+        final String json = mapper.writeValueAsString(
+            new MergedValidationReport(false, Collections.singletonList(result)));
+
+        Assertions.assertEquals("{\"conforms\":false,\"results\":[{\"severity\":\""
+            + SH.Warning.getURI() + "\",\"message\":\"Chybí název@cs\","
+            + "\"focusNode\":\"https://example.org/term\"}]}", json);
+    }
+
+    @Test
+    void getLangUsesLanguageTagOfLocale() {
+        Assertions.assertEquals("en-GB", ValidationReportSerializer.getLang(Locale.UK));
+    }
+
+    @Test
+    void getLangFallsBackToSerializationLanguageForLocaleWithoutLanguage() {
+        Assertions.assertEquals("cs", ValidationReportSerializer.getLang(Locale.ROOT));
+        Assertions.assertEquals("cs", ValidationReportSerializer.getLang(null));
+    }
+}
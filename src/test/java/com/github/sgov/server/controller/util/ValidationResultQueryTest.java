@@ -0,0 +1,125 @@
+package com.github.sgov.server.controller.util;
+
+import com.github.sgov.server.controller.dto.ValidationResultPage;
+import com.github.sgov.server.exception.ValidationException;
+import com.github.sgov.server.validation.MergedValidationReport;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ResourceValidationResult;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationResultQueryTest {
+
+    private static final String NS = "https://example.org/";
+
+    private final Model model = ModelFactory.createDefaultModel();
+
+    private ValidationResult result(Resource severity, String focusNode, String shape,
+                                    String message) {
+        return new ResourceValidationResult(model.createResource()
+            .addProperty(RDF.type, SH.ValidationResult)
+            .addProperty(SH.resultSeverity, severity)
+            .addProperty(SH.focusNode, model.createResource(NS + focusNode))
+            .addProperty(SH.sourceShape, model.createResource(NS + shape))
+            .addProperty(SH.resultMessage, model.createLiteral(message, "en")));
+    }
+
+    private ValidationReport report() {
+        return new MergedValidationReport(false, Arrays.asList(
+            result(SH.Violation, "a/1", "label-shape", "Missing label"),
+            result(SH.Warning, "a/2", "label-shape", "Missing label"),
+            result(SH.Violation, "b/1", "type-shape", "Missing type"),
+            result(SH.Info, "a/1", "type-shape", "Missing type")));
+    }
+
+    @Test
+    void applyWithoutParametersReturnsAllResults() {
+        final ValidationResultPage page = new ValidationResultQuery().apply(report(), "en");
+
+        Assertions.assertFalse(page.conforms());
+        Assertions.assertEquals(4, page.getResultCount());
+        Assertions.assertEquals(4, page.results().size());
+        Assertions.assertNull(page.getNextCursor());
+        Assertions.assertNull(page.getGroups());
+    }
+
+    @Test
+    void applyFiltersBySeverityFocusNodePrefixAndShape() {
+        final ValidationResultPage page = new ValidationResultQuery()
+            .setSeverity(new HashSet<>(Arrays.asList("violation", SH.Warning.getURI())))
+            .setFocusNodePrefix(NS + "a/")
+            .setShape(Collections.singleton(NS + "label-shape"))
+            .apply(report(), "en");
+
+        Assertions.assertEquals(2, page.getResultCount());
+        Assertions.assertEquals(
+            new HashSet<>(Arrays.asList(NS + "a/1", NS + "a/2")),
+            page.results().stream().map(r -> r.getFocusNode().asResource().getURI())
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void applyPagesThroughAllResultsWithCursor() {
+        final ValidationResultQuery query = new ValidationResultQuery().setLimit(3);
+        final ValidationResultPage first = query.apply(report(), "en");
+        Assertions.assertEquals(3, first.results().size());
+        Assertions.assertNotNull(first.getNextCursor());
+
+        final ValidationResultPage second =
+            query.setCursor(first.getNextCursor()).apply(report(), "en");
+        Assertions.assertEquals(1, second.results().size());
+        Assertions.assertNull(second.getNextCursor());
+        Assertions.assertFalse(first.results().contains(second.results().get(0)));
+        Assertions.assertEquals(SH.Info, second.results().get(0).getSeverity());
+    }
+
+    @Test
+    void applyCountsGroupsOfAllMatchingResults() {
+        final ValidationResultPage page = new ValidationResultQuery()
+            .setGroupBy(ValidationResultQuery.GROUP_BY_MESSAGE)
+            .setLimit(1)
+            .apply(report(), "en");
+
+        Assertions.assertEquals(1, page.results().size());
+        Assertions.assertEquals(2L, page.getGroups().get("Missing label@en"));
+        Assertions.assertEquals(2L, page.getGroups().get("Missing type@en"));
+    }
+
+    @Test
+    void applyGroupsByFocusNodeLargestGroupFirst() {
+        final ValidationResultPage page = new ValidationResultQuery()
+            .setGroupBy(ValidationResultQuery.GROUP_BY_FOCUS_NODE)
+            .apply(report(), "en");
+
+        Assertions.assertEquals(NS + "a/1", page.getGroups().keySet().iterator().next());
+        Assertions.assertEquals(2L, page.getGroups().get(NS + "a/1"));
+    }
+
+    @Test
+    void applyRejectsUnknownGrouping() {
+        Assertions.assertThrows(ValidationException.class, () ->
+            new ValidationResultQuery().setGroupBy("shape").apply(report(), "en"));
+    }
+
+    @Test
+    void applyRejectsLimitBelowOne() {
+        Assertions.assertThrows(ValidationException.class, () ->
+            new ValidationResultQuery().setLimit(0).apply(report(), "en"));
+    }
+
+    @Test
+    void applyRejectsInvalidCursor() {
+        Assertions.assertThrows(ValidationException.class, () ->
+            new ValidationResultQuery().setCursor("not a cursor").apply(report(), "en"));
+    }
+}
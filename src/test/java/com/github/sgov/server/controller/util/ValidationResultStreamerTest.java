@@ -0,0 +1,72 @@
+package com.github.sgov.server.controller.util;
+
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.validation.MergedValidationReport;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationResultStreamerTest {
+
+    @Test
+    void streamWritesVocabularyLinesFollowedBySummary() throws Exception {
+        final ValidationResult result = Mockito.mock(ValidationResult.class);
+        Mockito.when(result.getSeverity()).thenReturn(SH.Violation);
+        Mockito.when(result.getFocusNode())
+            .thenReturn(ResourceFactory.createResource("https://example.org/term"));
+        Mockito.when(result.getMessages()).thenReturn(Collections.<RDFNode>singletonList(
+            ResourceFactory.createLangLiteral("Chybí název", "cs")));
+        final MergedValidationReport report =
+            new MergedValidationReport(false, Collections.singletonList(result));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ValidationResultStreamer.stream(Locale.forLanguageTag("cs"), listener -> {
+            listener.vocabularyValidated(URI.create("https://example.org/context"), report);
+            listener.vocabularyValidated(URI.create("https://example.org/other"),
+                new MergedValidationReport(true, Collections.emptyList()));
+        }).writeTo(out);
+
+        final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertEquals("{\"type\":\"vocabulary\","
+            + "\"vocabularyContext\":\"https://example.org/context\",\"conforms\":false,"
+            + "\"results\":[{\"severity\":\"" + SH.Violation.getURI() + "\","
+            + "\"message\":\"Chybí název@cs\",\"focusNode\":\"https://example.org/term\"}]}",
+            lines[0]);
+        Assertions.assertEquals("{\"type\":\"summary\",\"conforms\":false,\"resultCount\":1,"
+            + "\"resultCounts\":{\"" + SH.Violation.getURI() + "\":1,\"" + SH.Warning.getURI()
+            + "\":0,\"" + SH.Info.getURI() + "\":0}}", lines[2]);
+    }
+
+    @Test
+    void streamWritesErrorLineWhenValidationFails() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ValidationResultStreamer.stream(Locale.ENGLISH, listener -> {
+            throw new SGoVException("Validation timed out.");
+        }).writeTo(out);
+
+        Assertions.assertEquals("{\"type\":\"error\",\"message\":\"Validation timed out.\"}\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void streamWritesErrorLineWhenValidationFailsUnexpectedly() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ValidationResultStreamer.stream(Locale.ENGLISH, listener -> {
+            throw new IllegalStateException("Closed connection.");
+        }).writeTo(out);
+
+        Assertions.assertEquals(
+            "{\"type\":\"error\",\"message\":\"Validation failed unexpectedly.\"}\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -6,7 +6,9 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.sgov.server.controller.dto.ValidationResultPage;
 import com.github.sgov.server.controller.util.ValidationReportSerializer;
+import com.github.sgov.server.controller.util.ValidationResultPageSerializer;
 import com.github.sgov.server.model.UserAccount;
 import com.github.sgov.server.security.model.AuthenticationToken;
 import com.github.sgov.server.security.model.SGoVUserDetails;
@@ -82,6 +84,8 @@ public class Environment {
             objectMapper.registerModule(new JavaTimeModule());
             final SimpleModule module = new SimpleModule();
             module.addSerializer(ValidationReport.class, new ValidationReportSerializer());
+            module.addSerializer(ValidationResultPage.class,
+                new ValidationResultPageSerializer());
             objectMapper.registerModule(module);
         }
         return objectMapper;
@@ -0,0 +1,64 @@
+package com.github.sgov.server.persistence;
+
+import static org.mockito.Mockito.mock;
+
+import com.github.sgov.server.config.conf.RepositoryConf;
+import com.github.sgov.server.config.conf.components.ComponentsConf;
+import java.util.Collections;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+class RepositoryAccessTest {
+
+    private final RepositoryConf repositoryConf =
+        new RepositoryConf(new ComponentsConf(Collections.emptyMap()));
+
+    @SuppressWarnings("unchecked")
+    private RepositoryAccess createRepositoryAccess() {
+        return new RepositoryAccess(repositoryConf, mock(ObjectProvider.class));
+    }
+
+    @Test
+    void getQueryRepositoryReusesRepositoryOfTheSameUrl() {
+        repositoryConf.setUrl("http://localhost:1234/repositories/sgov");
+        final RepositoryAccess sut = createRepositoryAccess();
+
+        Assertions.assertSame(sut.getQueryRepository(), sut.getQueryRepository());
+        Assertions.assertEquals("http://localhost:1234/repositories/sgov/statements",
+            ((SPARQLRepository) sut.getUpdateRepository()).toString());
+
+        repositoryConf.setUrl("http://localhost:1235/repositories/sgov");
+        Assertions.assertEquals("http://localhost:1235/repositories/sgov",
+            sut.getQueryRepository().toString());
+    }
+
+    @Test
+    void createQueryExecutionQueriesEndpointThroughSharedClient() {
+        final Dataset ds = DatasetFactory.create();
+        final Model model = ds.getNamedModel("https://example.org/graph");
+        model.add(model.createResource("https://example.org/term"), RDF.type, RDFS.Class);
+        final FusekiServer server = FusekiServer.create()
+            .port(1234)
+            .add("", ds)
+            .build();
+        server.start();
+        try {
+            final RepositoryAccess sut = createRepositoryAccess();
+            try (QueryExecution e = sut.createQueryExecution("http://localhost:1234/",
+                "ASK { GRAPH <https://example.org/graph> { ?s a ?c } }")) {
+                Assertions.assertTrue(e.execAsk());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.github.sgov.server.service;
 
+import com.github.sgov.server.config.ValidationConfig;
 import com.github.sgov.server.config.conf.FeatureConf;
 import com.github.sgov.server.config.conf.PersistenceConf;
 import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.config.conf.UserConf;
+import com.github.sgov.server.config.conf.ValidationConf;
 import com.github.sgov.server.config.conf.components.ComponentsProperties;
 import com.github.sgov.server.dao.AttachmentDao;
 import com.github.sgov.server.dao.VocabularyDao;
@@ -12,6 +14,10 @@ import com.github.sgov.server.environment.TransactionalTestRunner;
 import com.github.sgov.server.environment.config.TestDescriptorFactory;
 import com.github.sgov.server.environment.config.TestPersistenceConfig;
 import com.github.sgov.server.environment.config.TestServiceConfig;
+import com.github.sgov.server.validation.ImportedVocabularyCache;
+import com.github.sgov.server.validation.ShapesRegistry;
+import com.github.sgov.server.validation.ValidationMetrics;
+import com.github.sgov.server.validation.ValidationResultCache;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -35,6 +41,12 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
         RepositoryConf.class,
         FeatureConf.class,
         UserConf.class,
+        ValidationConf.class,
+        ValidationConfig.class,
+        ShapesRegistry.class,
+        ValidationResultCache.class,
+        ImportedVocabularyCache.class,
+        ValidationMetrics.class,
         ComponentsProperties.class,
         TestDescriptorFactory.class
     })
@@ -0,0 +1,83 @@
+package com.github.sgov.server.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.sgov.server.config.ValidationConfig;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.model.Workspace;
+import com.github.sgov.server.service.repository.WorkspaceRepositoryService;
+import com.github.sgov.server.validation.MergedValidationReport;
+import com.github.sgov.server.validation.ValidationJob;
+import com.github.sgov.server.validation.ValidationOptions;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class ValidationJobServiceTest {
+
+    private static final URI WORKSPACE = URI.create("https://example.org/workspace");
+
+    private final WorkspaceRepositoryService repositoryService =
+        mock(WorkspaceRepositoryService.class);
+
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    private ValidationJobService sut;
+
+    @BeforeEach
+    void setUp() {
+        final ValidationConf conf = new ValidationConf();
+        conf.setJobThreads(1);
+        jobExecutor = new ValidationConfig().validationJobExecutor(conf);
+        jobExecutor.initialize();
+        sut = new ValidationJobService(repositoryService, conf, jobExecutor);
+        final Workspace workspace = new Workspace();
+        workspace.setUri(WORKSPACE);
+        when(repositoryService.findRequired(WORKSPACE)).thenReturn(workspace);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.shutdown();
+    }
+
+    @Test
+    void cancelInterruptsRunningJobAndFreesItsWorker() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final ValidationReport report = new MergedValidationReport(true, Collections.emptyList());
+        when(repositoryService.validateVocabularies(any(), any(), any()))
+            .thenAnswer(invocation -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new SGoVException("Validation was interrupted.", e);
+                }
+                return report;
+            })
+            .thenReturn(report);
+
+        final ValidationJob cancelled = sut.submit(WORKSPACE, new ValidationOptions());
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        sut.cancel(cancelled.getId());
+        Assertions.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+
+        final ValidationJob next = sut.submit(WORKSPACE, new ValidationOptions());
+        next.getFuture().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(ValidationJob.Status.CANCELLED, cancelled.getStatus());
+        Assertions.assertEquals(ValidationJob.Status.FINISHED, next.getStatus());
+        Assertions.assertSame(report, sut.getReport(next.getId()));
+    }
+}
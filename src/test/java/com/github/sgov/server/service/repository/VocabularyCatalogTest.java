@@ -0,0 +1,51 @@
+package com.github.sgov.server.service.repository;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VocabularyCatalogTest {
+
+    private static final URI A = URI.create("https://example.org/a");
+
+    private static final URI B = URI.create("https://example.org/b");
+
+    private final VocabularyCatalog.Snapshot snapshot = new VocabularyCatalog.Snapshot(
+        Arrays.asList(
+            new VocabularyCatalog.Entry(A, "Slovník A", "cs"),
+            new VocabularyCatalog.Entry(A, "Vocabulary A", "en"),
+            new VocabularyCatalog.Entry(B, "Další slovník", "cs")),
+        Long.MAX_VALUE);
+
+    @Test
+    void getEntriesReturnsLabelsInLanguageSortedByLabel() {
+        Assertions.assertEquals(Arrays.asList(B, A), snapshot.getEntries("cs").stream()
+            .map(VocabularyCatalog.Entry::getVocabulary).collect(Collectors.toList()));
+        Assertions.assertEquals(3, snapshot.getEntries(null).size());
+    }
+
+    @Test
+    void getEntriesReturnsPageFollowingKey() {
+        final VocabularyCatalog.Entry first = snapshot.getEntries("cs", null, 1).get(0);
+        Assertions.assertEquals(B, first.getVocabulary());
+        Assertions.assertEquals(List.of(A), snapshot.getEntries("cs", first.getKey(), 1).stream()
+            .map(VocabularyCatalog.Entry::getVocabulary).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(), snapshot.getEntries("cs",
+            VocabularyCatalog.Entry.key("Slovník A", A), null));
+    }
+
+    @Test
+    void getLabelReturnsLabelInLanguage() {
+        Assertions.assertEquals("Vocabulary A", snapshot.getLabel(A, "en"));
+        Assertions.assertNull(snapshot.getLabel(B, "en"));
+    }
+
+    @Test
+    void containsOnlyPublishedVocabularies() {
+        Assertions.assertTrue(snapshot.contains(B));
+        Assertions.assertFalse(snapshot.contains(URI.create("https://example.org/c")));
+    }
+}
@@ -2,9 +2,13 @@ package com.github.sgov.server.service.repository;
 
 import com.github.sgov.server.config.conf.RepositoryConf;
 import com.github.sgov.server.controller.dto.VocabularyDto;
+import com.github.sgov.server.controller.dto.VocabularyStatusDto;
+import com.github.sgov.server.controller.dto.VocabularyWithWorkspacesDto;
+import com.github.sgov.server.controller.dto.WorkspaceDto;
 import com.github.sgov.server.service.BaseServiceTestRunner;
 import com.github.sgov.server.util.Vocabulary;
 import com.github.sgov.server.util.VocabularyType;
+import java.net.URI;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +37,9 @@ class VocabularyRepositoryServiceWithFusekiTest extends BaseServiceTestRunner {
     @Autowired
     private RepositoryConf repositoryConf;
 
+    @Autowired
+    private VocabularyCatalog vocabularyCatalog;
+
     private Dataset createDatasetOfVocabularyStubs(String... iris) {
         final Dataset ds = DatasetFactory.create();
 
@@ -69,4 +76,96 @@ class VocabularyRepositoryServiceWithFusekiTest extends BaseServiceTestRunner {
 
         server.stop();
     }
-}
\ No newline at end of file
+
+    @Test
+    void isVocabularyPublishedConfirmsCatalogMissInRepository() {
+        final String published = VocabularyType.ZSGOV.getVocabularyPattern();
+        final String added = VocabularyType.VSGOV.getVocabularyPattern();
+        final Dataset ds = createDatasetOfVocabularyStubs(published);
+        final FusekiServer server = FusekiServer.create()
+            .port(1234)
+            .add("", ds)
+            .build();
+        server.start();
+        repositoryConf.setUrl("http://localhost:1234/");
+
+        sut.getVocabulariesAsContextDtos();
+        Assertions.assertTrue(sut.isVocabularyPublished(URI.create(published)));
+        Assertions.assertFalse(sut.isVocabularyPublished(URI.create(added)));
+        ds.addNamedModel(added, createDatasetOfVocabularyStubs(added).getNamedModel(added));
+
+        Assertions.assertTrue(sut.isVocabularyPublished(URI.create(added)));
+        Assertions.assertNotNull(vocabularyCatalog.peekSnapshot());
+
+        server.stop();
+    }
+
+    @Test
+    void getVocabularyStatusQueriesRepositoryWithoutLoadingCatalog() {
+        final String published = VocabularyType.ZSGOV.getVocabularyPattern();
+        final String edited = VocabularyType.VSGOV.getVocabularyPattern();
+        final Dataset ds = createDatasetOfVocabularyStubs(published);
+        final Model workspaces = ds.getDefaultModel();
+        workspaces.createResource("https://example.org/workspace")
+            .addProperty(RDF.type, workspaces.createResource(Vocabulary.s_c_metadatovy_kontext))
+            .addProperty(workspaces.createProperty(Vocabulary.s_p_odkazuje_na_kontext),
+                workspaces.createResource("https://example.org/context")
+                    .addProperty(workspaces.createProperty(Vocabulary.s_p_vychazi_z_verze),
+                        workspaces.createResource(edited)));
+        final FusekiServer server = FusekiServer.create()
+            .port(1234)
+            .add("", ds)
+            .build();
+        server.start();
+        repositoryConf.setUrl("http://localhost:1234/");
+
+        final VocabularyStatusDto publishedStatus =
+            sut.getVocabularyStatus(URI.create(published));
+        Assertions.assertTrue(publishedStatus.isPublished());
+        Assertions.assertFalse(publishedStatus.isEdited());
+        final VocabularyStatusDto editedStatus = sut.getVocabularyStatus(URI.create(edited));
+        Assertions.assertFalse(editedStatus.isPublished());
+        Assertions.assertTrue(editedStatus.isEdited());
+        Assertions.assertNull(vocabularyCatalog.peekSnapshot());
+
+        server.stop();
+    }
+
+    @Test
+    void getVocabulariesWithWorkspacesAsDtosAssignsWorkspacesOfEachVocabulary() {
+        final String referenced = VocabularyType.ZSGOV.getVocabularyPattern();
+        final String other = VocabularyType.VSGOV.getVocabularyPattern();
+        final Dataset ds = createDatasetOfVocabularyStubs(referenced, other);
+        final Model workspaces = ds.getDefaultModel();
+        final Resource workspace = workspaces.createResource("https://example.org/workspace");
+        workspaces.add(workspace, RDF.type,
+            workspaces.createResource(Vocabulary.s_c_metadatovy_kontext));
+        workspaces.add(workspace, DCTerms.title, "Workspace");
+        workspaces.add(workspace,
+            workspaces.createProperty(Vocabulary.s_p_odkazuje_na_kontext),
+            workspaces.createResource("https://example.org/context")
+                .addProperty(workspaces.createProperty(Vocabulary.s_p_vychazi_z_verze),
+                    workspaces.createResource(referenced)));
+        final FusekiServer server = FusekiServer.create()
+            .port(1234)
+            .add("", ds)
+            .build();
+        server.start();
+        repositoryConf.setUrl("http://localhost:1234/");
+
+        final List<VocabularyWithWorkspacesDto> vocabularies =
+            sut.getVocabulariesWithWorkspacesAsDtos(null);
+        Assertions.assertEquals(2, vocabularies.size());
+        vocabularies.forEach(v -> {
+            if (v.getUri().toString().equals(referenced)) {
+                Assertions.assertEquals(
+                    List.of(new WorkspaceDto(URI.create(workspace.getURI()), "Workspace")),
+                    v.getInWorkspaces());
+            } else {
+                Assertions.assertNull(v.getInWorkspaces());
+            }
+        });
+
+        server.stop();
+    }
+}
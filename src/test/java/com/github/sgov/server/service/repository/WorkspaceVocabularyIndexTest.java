@@ -0,0 +1,81 @@
+package com.github.sgov.server.service.repository;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.sgov.server.dao.WorkspaceDao;
+import com.github.sgov.server.model.VocabularyContext;
+import com.github.sgov.server.model.Workspace;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class WorkspaceVocabularyIndexTest {
+
+    private static final URI VOCABULARY = URI.create("https://example.org/vocabulary");
+
+    private final WorkspaceDao workspaceDao = mock(WorkspaceDao.class);
+
+    private final WorkspaceVocabularyIndex sut = new WorkspaceVocabularyIndex(workspaceDao);
+
+    private static Workspace workspace(String name) {
+        final Workspace workspace = new Workspace();
+        workspace.setUri(URI.create("https://example.org/workspace/" + name));
+        return workspace;
+    }
+
+    private static VocabularyContext context(String name, URI vocabulary) {
+        final VocabularyContext context = new VocabularyContext();
+        context.setUri(URI.create("https://example.org/context/" + name));
+        context.setBasedOnVersion(vocabulary);
+        return context;
+    }
+
+    @Test
+    void getContextsLoadsWorkspacesOnce() {
+        final Workspace workspace = workspace("a");
+        final VocabularyContext context = context("a", VOCABULARY);
+        workspace.addRefersToVocabularyContexts(context);
+        when(workspaceDao.findAll()).thenReturn(List.of(workspace));
+
+        Assertions.assertEquals(Map.of(workspace.getUri(), context.getUri()),
+            sut.getContexts(VOCABULARY));
+        Assertions.assertEquals(Collections.singleton(VOCABULARY), sut.getVocabularies());
+        verify(workspaceDao, times(1)).findAll();
+    }
+
+    @Test
+    void addAndRemoveUpdateLoadedIndex() {
+        when(workspaceDao.findAll()).thenReturn(Collections.emptyList());
+        final Workspace workspace = workspace("a");
+        final VocabularyContext context = context("a", VOCABULARY);
+        Assertions.assertFalse(sut.contains(VOCABULARY));
+
+        sut.add(workspace, context);
+        Assertions.assertTrue(sut.contains(VOCABULARY));
+
+        sut.remove(workspace, context);
+        Assertions.assertFalse(sut.contains(VOCABULARY));
+        Assertions.assertEquals(Collections.emptyMap(), sut.getContexts(VOCABULARY));
+        verify(workspaceDao, times(1)).findAll();
+    }
+
+    @Test
+    void invalidateReloadsWorkspaces() {
+        when(workspaceDao.findAll()).thenReturn(Collections.emptyList());
+        Assertions.assertFalse(sut.contains(VOCABULARY));
+
+        final Workspace workspace = workspace("a");
+        workspace.addRefersToVocabularyContexts(context("a", VOCABULARY));
+        when(workspaceDao.findAll()).thenReturn(List.of(workspace));
+        sut.invalidate();
+
+        Assertions.assertTrue(sut.contains(VOCABULARY));
+        verify(workspaceDao, times(2)).findAll();
+    }
+}
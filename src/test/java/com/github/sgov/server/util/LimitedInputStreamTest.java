@@ -0,0 +1,41 @@
+package com.github.sgov.server.util;
+
+import com.github.sgov.server.exception.PayloadTooLargeException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LimitedInputStreamTest {
+
+    private static InputStream bytes(int count) {
+        return new ByteArrayInputStream(new byte[count]);
+    }
+
+    @Test
+    void readReturnsAllBytesWithinLimit() throws IOException {
+        final LimitedInputStream sut = new LimitedInputStream(
+            new ByteArrayInputStream("data".getBytes(StandardCharsets.UTF_8)), 4);
+
+        Assertions.assertEquals("data", new String(sut.readAllBytes(), StandardCharsets.UTF_8));
+        Assertions.assertFalse(sut.isExceeded());
+    }
+
+    @Test
+    void readThrowsPayloadTooLargeExceptionAboveLimit() {
+        final LimitedInputStream sut = new LimitedInputStream(bytes(10), 4);
+
+        Assertions.assertThrows(PayloadTooLargeException.class, sut::readAllBytes);
+        Assertions.assertTrue(sut.isExceeded());
+    }
+
+    @Test
+    void readOfSingleBytesThrowsPayloadTooLargeExceptionAboveLimit() throws IOException {
+        final LimitedInputStream sut = new LimitedInputStream(bytes(2), 1);
+
+        sut.read();
+        Assertions.assertThrows(PayloadTooLargeException.class, sut::read);
+    }
+}
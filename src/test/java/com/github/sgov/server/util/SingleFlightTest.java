@@ -0,0 +1,164 @@
+package com.github.sgov.server.util;
+
+import com.github.sgov.server.exception.SGoVException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> sut = new SingleFlight<>();
+
+    @Test
+    void executeSharesRunningComputationWithEqualKey() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+        started.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", runs::incrementAndGet));
+        // give the second caller time to join the running computation
+        Thread.sleep(100);
+        release.countDown();
+
+        Assertions.assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    void executeRunsAgainOnceComputationFinished() {
+        final AtomicInteger runs = new AtomicInteger();
+        sut.execute("key", runs::incrementAndGet);
+        Assertions.assertEquals(2, sut.execute("key", runs::incrementAndGet));
+    }
+
+    @Test
+    void executeRunsComputationsWithDifferentKeysSeparately() {
+        Assertions.assertEquals(1, sut.execute("a", () -> 1));
+        Assertions.assertEquals(2, sut.execute("b", () -> 2));
+    }
+
+    @Test
+    void executeRethrowsExceptionOfComputation() {
+        Assertions.assertThrows(IllegalStateException.class, () -> sut.execute("key", () -> {
+            throw new IllegalStateException();
+        }));
+        Assertions.assertEquals(1, sut.execute("key", () -> 1));
+    }
+
+    @Test
+    void executeRetriesComputationAbandonedByInterruptedCaller() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<Integer> first = executor.submit(() -> sut.execute("key", () -> {
+                started.countDown();
+                await(release);
+                Thread.currentThread().interrupt();
+                throw new SGoVException("Interrupted.");
+            }));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            final Future<Integer> second = executor.submit(() -> sut.execute("key", () -> 2));
+            // give the second caller time to join the running computation
+            Thread.sleep(100);
+            release.countDown();
+
+            Assertions.assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeRetriesComputationWhoseCallerTimedOut() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new SGoVException("Timed out.", new TimeoutException());
+            }));
+        started.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", () -> 2));
+        // give the second caller time to join the running computation
+        Thread.sleep(100);
+        release.countDown();
+
+        Assertions.assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        Assertions.assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void executeSharesFailureOfComputation() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                throw new IllegalStateException();
+            }));
+        started.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", runs::incrementAndGet));
+        // give the second caller time to join the running computation
+        Thread.sleep(100);
+        release.countDown();
+
+        final Exception e = Assertions.assertThrows(Exception.class,
+            () -> second.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+        Assertions.assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    void executeWaitsForRunningComputationAtMostForTimeout() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+            sut.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+        started.await(5, TimeUnit.SECONDS);
+        try {
+            final SGoVException e = Assertions.assertThrows(SGoVException.class,
+                () -> sut.execute("key", () -> 2, Duration.ofMillis(100)));
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertEquals(1, first.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.SKOS;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class GraphFingerprintsTest {
+
+    private static final String NS = "https://example.org/";
+
+    private static final String GRAPH = NS + "context";
+
+    private final Dataset dataset = DatasetFactory.create();
+
+    private Resource term;
+
+    @BeforeEach
+    void setUp() {
+        final Model model = dataset.getNamedModel(GRAPH);
+        term = model.createResource(NS + "term")
+            .addProperty(SKOS.prefLabel, "Budova", "cs")
+            .addProperty(SKOS.broader, model.createResource(NS + "object"));
+    }
+
+    private Map<String, String> fingerprints() {
+        final Map<String, String> fingerprints = new HashMap<>();
+        try (QueryExecution e = QueryExecutionFactory.create(
+            GraphFingerprints.createQuery(Collections.singleton(GRAPH)), dataset)) {
+            final ResultSet results = e.execSelect();
+            results.forEachRemaining(s ->
+                fingerprints.put(s.getResource("g").getURI(), GraphFingerprints.getFingerprint(s)));
+        }
+        return fingerprints;
+    }
+
+    @Test
+    void createQueryComputesSameFingerprintForSameContent() {
+        final String before = fingerprints().get(GRAPH);
+        term.removeAll(SKOS.prefLabel).addProperty(SKOS.prefLabel, "Budova", "cs");
+
+        Assertions.assertTrue(before.startsWith("2:"));
+        Assertions.assertEquals(before, fingerprints().get(GRAPH));
+    }
+
+    @Test
+    void createQueryComputesDifferentFingerprintAfterEditOfSameSize() {
+        final String before = fingerprints().get(GRAPH);
+        term.removeAll(SKOS.prefLabel).addProperty(SKOS.prefLabel, "Stavba", "cs");
+        final String after = fingerprints().get(GRAPH);
+
+        Assertions.assertTrue(after.startsWith("2:"));
+        Assertions.assertNotEquals(before, after);
+    }
+
+    @Test
+    void createQueryDistinguishesLanguageOfLiterals() {
+        final String before = fingerprints().get(GRAPH);
+        term.removeAll(SKOS.prefLabel).addProperty(SKOS.prefLabel, "Budova", "sk");
+
+        Assertions.assertNotEquals(before, fingerprints().get(GRAPH));
+    }
+
+    @Test
+    void createQueryLeavesOutEmptyGraphs() {
+        dataset.getNamedModel(GRAPH).removeAll();
+
+        Assertions.assertTrue(fingerprints().isEmpty());
+    }
+
+    @Test
+    void getFingerprintOfGraphEqualsFingerprintComputedByQuery() {
+        final Model model = dataset.getNamedModel(GRAPH);
+        model.createResource()
+            .addProperty(SKOS.notation, model.createTypedLiteral(1))
+            .addProperty(SKOS.definition, "Definice");
+
+        Assertions.assertEquals(fingerprints().get(GRAPH),
+            GraphFingerprints.getFingerprint(model.getGraph()));
+    }
+
+    @Test
+    void getFingerprintOfEmptyGraphIsEmpty() {
+        Assertions.assertEquals(GraphFingerprints.EMPTY,
+            GraphFingerprints.getFingerprint(DatasetFactory.create().getDefaultModel().getGraph()));
+    }
+
+    @Test
+    void editOfSameSizeMissesCachedReport() {
+        final ValidationConf conf = new ValidationConf();
+        final ValidationResultCache cache = new ValidationResultCache(conf);
+        final URI context = URI.create(GRAPH);
+        final ValidationReport report = new MergedValidationReport(true, Collections.emptyList());
+        cache.put(context, "full", fingerprints().get(GRAPH), report);
+        term.removeAll(SKOS.prefLabel).addProperty(SKOS.prefLabel, "Stavba", "cs");
+
+        Assertions.assertNull(cache.get(context, "full", fingerprints().get(GRAPH)));
+    }
+}
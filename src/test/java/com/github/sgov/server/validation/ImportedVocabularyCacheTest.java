@@ -0,0 +1,164 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.SGoVException;
+import com.github.sgov.server.util.Vocabulary;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImportedVocabularyCacheTest {
+
+    private static final String A = "https://example.org/a";
+    private static final String B = "https://example.org/b";
+    private static final String C = "https://example.org/c";
+
+    private final List<Set<String>> loads = Collections.synchronizedList(new ArrayList<>());
+
+    private final ValidationConf conf = new ValidationConf();
+
+    private String importedByB = C;
+
+    private ImportedVocabularyCache sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new ImportedVocabularyCache(conf);
+    }
+
+    private static Graph importing(String vocabulary, String imported) {
+        final Graph g = GraphFactory.createGraphMem();
+        g.add(Triple.create(NodeFactory.createURI(vocabulary),
+            NodeFactory.createURI(Vocabulary.s_c_import), NodeFactory.createURI(imported)));
+        return g;
+    }
+
+    private Map<String, Graph> load(Set<String> vocabularies) {
+        loads.add(vocabularies);
+        final Map<String, Graph> graphs = new HashMap<>();
+        vocabularies.forEach(v -> graphs.put(v,
+            v.equals(B) ? importing(B, importedByB) : GraphFactory.createGraphMem()));
+        return graphs;
+    }
+
+    @Test
+    void getImportsFollowsImportsTransitively() {
+        final Map<String, Graph> imports = sut.getImports(importing(A, B), this::load);
+        Assertions.assertEquals(2, imports.size());
+        Assertions.assertTrue(imports.containsKey(B));
+        Assertions.assertTrue(imports.containsKey(C));
+    }
+
+    @Test
+    void getImportsReusesLoadedVocabularies() {
+        sut.getImports(importing(A, B), this::load);
+        sut.getImports(importing(A, B), this::load);
+        Assertions.assertEquals(2, loads.size());
+    }
+
+    @Test
+    void getImportsReturnsReadOnlyGraphs() {
+        final Graph b = sut.getImports(importing(A, B), this::load).get(B);
+        Assertions.assertThrows(RuntimeException.class, () -> b.add(Triple.create(
+            NodeFactory.createURI(A), NodeFactory.createURI(A), NodeFactory.createURI(A))));
+    }
+
+    @Test
+    void getImportsReloadsExpiredVocabularyKeepingGenerationOfSameContent() {
+        conf.setImportCacheTtl(Duration.ZERO);
+        sut.getImports(importing(A, B), this::load);
+        final long generation = sut.getGeneration();
+        sut.getImports(importing(A, B), this::load);
+        Assertions.assertEquals(Collections.singleton(B), loads.get(2));
+        Assertions.assertEquals(generation, sut.getGeneration());
+    }
+
+    @Test
+    void getImportsReloadsExpiredVocabularyChangingGenerationOfDifferentContent() {
+        conf.setImportCacheTtl(Duration.ZERO);
+        sut.getImports(importing(A, B), this::load);
+        final long generation = sut.getGeneration();
+        importedByB = "https://example.org/d";
+        sut.getImports(importing(A, B), this::load);
+        Assertions.assertNotEquals(generation, sut.getGeneration());
+    }
+
+    @Test
+    void getImportsLoadsVocabularyOnceForConcurrentMisses() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Map<String, Graph>> first = executor.submit(() ->
+                sut.getImports(importing(A, C), vocabularies -> {
+                    loading.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(vocabularies);
+                }));
+            Assertions.assertTrue(loading.await(10, TimeUnit.SECONDS));
+            final Future<Map<String, Graph>> second =
+                executor.submit(() -> sut.getImports(importing(A, C), this::load));
+            // lets the second validation join the running load
+            Thread.sleep(100);
+            release.countDown();
+
+            Assertions.assertSame(first.get(10, TimeUnit.SECONDS).get(C),
+                second.get(10, TimeUnit.SECONDS).get(C));
+            Assertions.assertEquals(1, loads.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getImportsLoadsVocabularyAgainIfSharedLoadWasInterrupted() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Map<String, Graph>> cancelled = executor.submit(() ->
+                sut.getImports(importing(A, C), vocabularies -> {
+                    loading.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new SGoVException("Fetching statements was interrupted.");
+                }));
+            Assertions.assertTrue(loading.await(10, TimeUnit.SECONDS));
+            final Future<Map<String, Graph>> other =
+                executor.submit(() -> sut.getImports(importing(A, C), this::load));
+            // lets the other validation join the running load
+            Thread.sleep(100);
+            release.countDown();
+
+            Assertions.assertThrows(Exception.class, () -> cancelled.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(other.get(10, TimeUnit.SECONDS).containsKey(C));
+            Assertions.assertEquals(1, loads.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.sgov.server.validation;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Set;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RdfsClosureTest {
+
+    private static final String PREFIXES = "@prefix ex: <https://example.org/> .\n"
+        + "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n"
+        + "@prefix sh: <http://www.w3.org/ns/shacl#> .\n";
+
+    private static Model parse(String turtle) {
+        final Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(PREFIXES + turtle), null, "TURTLE");
+        return model;
+    }
+
+    @Test
+    void needsInferenceIsFalseForCoreConstraints() {
+        final Model shapes = parse("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] .");
+        Assertions.assertFalse(RdfsClosure.needsInference(shapes));
+    }
+
+    @Test
+    void needsInferenceIsTrueForSparqlConstraints() {
+        final Model shapes = parse("ex:S a sh:NodeShape ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this a ex:A }\" ] .");
+        Assertions.assertTrue(RdfsClosure.needsInference(shapes));
+    }
+
+    @Test
+    void needsDomainRangeInferenceIsTrueForClassTargets() {
+        Assertions.assertTrue(RdfsClosure.needsDomainRangeInference(
+            parse("ex:S a sh:NodeShape ; sh:targetClass ex:A .")));
+        Assertions.assertTrue(RdfsClosure.needsDomainRangeInference(
+            parse("ex:A a rdfs:Class, sh:NodeShape ; sh:property [ sh:path ex:p ;"
+                + " sh:minCount 1 ] .")));
+    }
+
+    @Test
+    void needsDomainRangeInferenceIsTrueForClassConstraints() {
+        final Model shapes = parse("ex:S a sh:NodeShape ; sh:targetSubjectsOf ex:p ;"
+            + " sh:property [ sh:path ex:p ; sh:class ex:A ] .");
+        Assertions.assertTrue(RdfsClosure.needsDomainRangeInference(shapes));
+    }
+
+    @Test
+    void needsDomainRangeInferenceIsTrueForQueriesOverTypes() {
+        final Model shapes = parse("ex:S a sh:NodeShape ; sh:targetSubjectsOf ex:p ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this a ex:A }\" ] .");
+        Assertions.assertTrue(RdfsClosure.needsDomainRangeInference(shapes));
+    }
+
+    @Test
+    void needsDomainRangeInferenceIsFalseForShapesNotObservingTypes() {
+        final Model shapes = parse("ex:S a sh:NodeShape ; sh:targetSubjectsOf ex:p ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this ex:p ex:a }\" ] .");
+        Assertions.assertFalse(RdfsClosure.needsDomainRangeInference(shapes));
+    }
+
+    @Test
+    void getReferencedPredicatesResolvesDeclaredPrefixesInQueries() {
+        final Model shapes = parse("ex:S sh:declare [ sh:prefix \"x\" ;"
+            + " sh:namespace \"https://example.org/x/\" ] ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this x:q ?o ;"
+            + " <https://example.org/r> ?v }\" ] .");
+        final Set<String> predicates = RdfsClosure.getReferencedPredicates(shapes);
+        Assertions.assertTrue(predicates.contains("https://example.org/x/q"));
+        Assertions.assertTrue(predicates.contains("https://example.org/r"));
+        Assertions.assertTrue(predicates.contains(RDF.type.getURI()));
+    }
+
+    @Test
+    void materializeAddsInheritedTypes() {
+        final Model data = parse("ex:B rdfs:subClassOf ex:A . ex:C rdfs:subClassOf ex:B ."
+            + " ex:i a ex:C .");
+        RdfsClosure.materialize(data, Collections.singleton(RDF.type.getURI()));
+        final Resource i = data.getResource("https://example.org/i");
+        final Resource a = data.getResource("https://example.org/A");
+        final Resource b = data.getResource("https://example.org/B");
+        Assertions.assertTrue(data.contains(i, RDF.type, b));
+        Assertions.assertTrue(data.contains(i, RDF.type, a));
+    }
+
+    @Test
+    void materializeAddsSuperPropertyStatementsOnlyForGivenPredicates() {
+        final Model data = parse("ex:q rdfs:subPropertyOf ex:p . ex:r rdfs:subPropertyOf ex:s ."
+            + " ex:i ex:q ex:j ; ex:r ex:k .");
+        RdfsClosure.materialize(data, Collections.singleton("https://example.org/p"));
+        final Resource i = data.getResource("https://example.org/i");
+        final Property p = data.getProperty("https://example.org/p");
+        final Property s = data.getProperty("https://example.org/s");
+        Assertions.assertTrue(data.contains(i, p, data.getResource("https://example.org/j")));
+        Assertions.assertFalse(data.contains(i, s, (RDFNode) null));
+    }
+}
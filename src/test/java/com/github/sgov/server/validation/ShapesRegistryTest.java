@@ -0,0 +1,55 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.Validator;
+import com.github.sgov.server.config.conf.ValidationConf;
+import com.github.sgov.server.exception.NotFoundException;
+import java.net.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShapesRegistryTest {
+
+    private ShapesRegistry sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new ShapesRegistry(new ValidationConf());
+    }
+
+    @Test
+    void getShapesThrowsNotFoundForUnknownProfile() {
+        Assertions.assertThrows(NotFoundException.class, () -> sut.getShapes("unknown"));
+    }
+
+    @Test
+    void getShapesReturnsSameInstanceForRepeatedCalls() {
+        Assertions.assertSame(sut.getShapes("glossary-only"), sut.getShapes("glossary-only"));
+    }
+
+    @Test
+    void getShapesOfGlossaryOnlyProfileContainsOnlyGlossaryRules() {
+        final Validator validator = new Validator();
+        final ShapeSet shapes = sut.getShapes("glossary-only");
+        Assertions.assertEquals(validator.getGlossaryRules().size(), shapes.getRules().size());
+        Assertions.assertTrue(shapes.getRules().containsAll(validator.getGlossaryRules()));
+    }
+
+    @Test
+    void getShapesOfGlossaryOnlyProfileUsesNoInference() {
+        Assertions.assertEquals(InferenceMode.NONE, sut.getShapes("glossary-only").getInference());
+    }
+
+    @Test
+    void getShapesOfDefaultProfileChoosesInferenceMode() {
+        Assertions.assertNotEquals(InferenceMode.AUTO, sut.getShapes(null).getInference());
+    }
+
+    @Test
+    void getShapesOfDefaultProfileSkipsExcludedRules() {
+        final ShapeSet shapes = sut.getShapes(null);
+        Assertions.assertTrue(shapes.getRules().stream()
+            .map(URL::getPath)
+            .noneMatch(path -> path.endsWith("/m2.ttl")));
+    }
+}
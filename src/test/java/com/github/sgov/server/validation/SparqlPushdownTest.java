@@ -0,0 +1,239 @@
+package com.github.sgov.server.validation;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.util.DynamicDatasets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.topbraid.shacl.validation.ResourceValidationResult;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.validation.ValidationUtil;
+import org.topbraid.shacl.vocabulary.SH;
+
+class SparqlPushdownTest {
+
+    private static final String PREFIXES = "@prefix ex: <https://example.org/> .\n"
+        + "@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .\n"
+        + "@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .\n"
+        + "@prefix sh: <http://www.w3.org/ns/shacl#> .\n";
+
+    private static final String VC = "https://example.org/vc";
+
+    private static final String IMPORT = "https://example.org/import";
+
+    private final Dataset dataset = DatasetFactory.create();
+
+    private static Model parse(String turtle) {
+        final Model model = ModelFactory.createDefaultModel();
+        model.read(new StringReader(PREFIXES + turtle), null, "TURTLE");
+        return model;
+    }
+
+    private static List<SparqlCheck> compile(String shapes, InferenceMode inference) {
+        final Model shapesModel = parse(shapes);
+        return SparqlPushdown.compile(shapesModel.getResource("https://example.org/S"),
+            inference, RdfsClosure.getReferencedPredicates(shapesModel), "rule.ttl");
+    }
+
+    private List<ValidationResult> run(List<SparqlCheck> checks, Collection<String> imports) {
+        final Model results = ModelFactory.createDefaultModel();
+        final List<ValidationResult> violations = new ArrayList<>();
+        for (final SparqlCheck check : checks) {
+            final Query query = check.createQuery(VC, imports);
+            final Dataset queried = DatasetFactory.wrap(DynamicDatasets.dynamicDataset(
+                query.getDatasetDescription(), dataset.asDatasetGraph(), false));
+            try (QueryExecution e = QueryExecutionFactory.create(query, queried)) {
+                final ResultSet solutions = e.execSelect();
+                while (solutions.hasNext()) {
+                    violations.add(check.createResult(solutions.next(), results));
+                }
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Describes each result by its focus node, constraint component and value, sorted so that
+     * results of the repository and of in-process validation can be compared.
+     */
+    private static List<String> describe(List<ValidationResult> results) {
+        return results.stream()
+            .map(r -> r.getFocusNode().asResource().getLocalName() + " "
+                + r.getSourceConstraintComponent().getLocalName() + " "
+                + (r.getValue() != null ? r.getValue() : "-"))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static Set<String> focusNodes(List<ValidationResult> results) {
+        return results.stream()
+            .map(r -> r.getFocusNode().asResource().getLocalName())
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    void compileEvaluatesPropertyConstraintsOfTargetClass() {
+        final List<SparqlCheck> checks = compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ; sh:datatype xsd:string ] .",
+            InferenceMode.NONE);
+        dataset.addNamedModel(VC, parse("ex:B rdfs:subClassOf ex:A ."
+            + " ex:ok a ex:A ; ex:p \"x\" . ex:missing a ex:B ."
+            + " ex:wrongType a ex:A ; ex:p 1 . ex:other ex:p 1 ."));
+
+        Assertions.assertEquals(2, checks.size());
+        Assertions.assertEquals(new HashSet<>(List.of("missing", "wrongType")),
+            focusNodes(run(checks, Collections.emptyList())));
+    }
+
+    @Test
+    void compileResolvesSubPropertiesWithRdfsClosure() {
+        final List<SparqlCheck> checks = compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] .", InferenceMode.RDFS_CLOSURE);
+        dataset.addNamedModel(VC, parse("ex:q rdfs:subPropertyOf ex:p ."
+            + " ex:ok a ex:A ; ex:q \"x\" . ex:missing a ex:A ."));
+
+        Assertions.assertEquals(Collections.singleton("missing"),
+            focusNodes(run(checks, Collections.emptyList())));
+    }
+
+    @Test
+    void createQueryValidatesOnlyNodesOfVocabularyContextTogetherWithImports() {
+        final List<SparqlCheck> checks = compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:maxCount 1 ] .", InferenceMode.NONE);
+        dataset.addNamedModel(VC, parse("ex:local a ex:A ; ex:p 1 ."));
+        dataset.addNamedModel(IMPORT, parse("ex:local ex:p 2 . ex:imported a ex:A ; ex:p 1, 2 ."));
+
+        Assertions.assertEquals(Collections.singleton("local"),
+            focusNodes(run(checks, Collections.singleton(IMPORT))));
+    }
+
+    @Test
+    void compileWrapsSparqlConstraintWithTarget() {
+        final List<SparqlCheck> checks = compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:sparql [ sh:message \"{$this} has no label\" ; sh:select"
+            + " \"SELECT $this WHERE { FILTER NOT EXISTS { $this <https://example.org/label> ?l }"
+            + " }\" ] .", InferenceMode.NONE);
+        dataset.addNamedModel(VC, parse("ex:ok a ex:A ; ex:label \"x\" . ex:missing a ex:A ."
+            + " ex:other ex:x 1 ."));
+
+        Assertions.assertEquals(Collections.singleton("missing"),
+            focusNodes(run(checks, Collections.emptyList())));
+        final ValidationResult result = run(checks, Collections.emptyList()).get(0);
+        Assertions.assertEquals(SH.Violation, result.getSeverity());
+        Assertions.assertEquals("https://example.org/missing has no label",
+            result.getMessages().get(0).asLiteral().getLexicalForm());
+    }
+
+    @Test
+    void compileLeavesUnsupportedShapesInProcess() {
+        Assertions.assertNull(compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:or ( [ sh:path ex:p ; sh:minCount 1 ] [ sh:path ex:q ; sh:minCount 1 ] ) .",
+            InferenceMode.NONE));
+        Assertions.assertNull(compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ( ex:p ex:q ) ; sh:minCount 1 ] .", InferenceMode.NONE));
+        Assertions.assertNull(compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] .", InferenceMode.FULL));
+        Assertions.assertNull(compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this ?p ?o }\" ] .",
+            InferenceMode.RDFS_CLOSURE));
+        Assertions.assertNull(compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:sparql [ sh:select \"SELECT $this WHERE { $this ?p ?o } LIMIT 1\" ] .",
+            InferenceMode.NONE));
+    }
+
+    @Test
+    void compileReturnsNoChecksForDeactivatedShape() {
+        Assertions.assertEquals(Collections.emptyList(), compile("ex:S a sh:NodeShape ;"
+            + " sh:targetClass ex:A ; sh:deactivated true ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] .", InferenceMode.NONE));
+    }
+
+    @Test
+    void compileFollowsSubPropertiesOnlyOfClosurePredicates() {
+        final Model shapesModel = parse("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 1 ] .");
+        final List<SparqlCheck> checks = SparqlPushdown.compile(
+            shapesModel.getResource("https://example.org/S"), InferenceMode.RDFS_CLOSURE,
+            Collections.emptySet(), "rule.ttl");
+        dataset.addNamedModel(VC, parse("ex:q rdfs:subPropertyOf ex:p ."
+            + " ex:sub a ex:A ; ex:q \"x\" . ex:missing a ex:A ."));
+
+        Assertions.assertEquals(new HashSet<>(List.of("sub", "missing")),
+            focusNodes(run(checks, Collections.emptyList())));
+    }
+
+    @Test
+    void createResultSubstitutesConstraintParametersInMessage() {
+        final List<SparqlCheck> checks = compile("ex:S a sh:NodeShape ; sh:targetClass ex:A ;"
+            + " sh:property [ sh:path ex:p ; sh:minCount 2 ;"
+            + " sh:message \"At least {$minCount} values of {$this}\"@en ] .",
+            InferenceMode.NONE);
+        dataset.addNamedModel(VC, parse("ex:missing a ex:A ."));
+
+        final RDFNode message = run(checks, Collections.emptyList()).get(0).getMessages().get(0);
+        Assertions.assertEquals("At least 2 values of https://example.org/missing",
+            message.asLiteral().getLexicalForm());
+        Assertions.assertEquals("en", message.asLiteral().getLanguage());
+    }
+
+    private static Stream<Arguments> provideCompiledConstraints() {
+        return Stream.of(
+            Arguments.of("sh:property [ sh:path ex:p ; sh:minCount 1 ]",
+                "ex:ok a ex:A ; ex:p 1 . ex:bad a ex:A ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:maxCount 1 ]",
+                "ex:ok a ex:A ; ex:p 1 . ex:bad a ex:A ; ex:p 1, 2 ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:datatype xsd:string ]",
+                "ex:ok a ex:A ; ex:p \"x\" . ex:bad a ex:A ; ex:p 1, ex:x, \"y\"@cs ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:nodeKind sh:IRI ]",
+                "ex:ok a ex:A ; ex:p ex:x . ex:bad a ex:A ; ex:p \"x\", 1 ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:pattern \"^ab\" ; sh:flags \"i\" ]",
+                "ex:ok a ex:A ; ex:p \"ABc\" . ex:bad a ex:A ; ex:p \"xab\", 12, ex:ab ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:languageIn ( \"cs\" ) ]",
+                "ex:ok a ex:A ; ex:p \"x\"@cs, \"y\"@cs-CZ ."
+                    + " ex:bad a ex:A ; ex:p \"x\"@en, \"y\", ex:x ."),
+            Arguments.of("sh:property [ sh:path ex:p ; sh:uniqueLang true ]",
+                "ex:ok a ex:A ; ex:p \"x\"@cs, \"x\"@en, \"y\" , \"z\" ."
+                    + " ex:bad a ex:A ; ex:p \"x\"@cs, \"y\"@cs, \"x\"@en, \"y\"@en ."),
+            Arguments.of("sh:sparql [ sh:select \"SELECT $this ?value WHERE {"
+                    + " $this <https://example.org/p> ?value . FILTER (isLiteral(?value)) }\" ]",
+                "ex:ok a ex:A ; ex:p ex:x . ex:bad a ex:A ; ex:p \"x\", ex:y ."));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideCompiledConstraints")
+    void compiledConstraintGivesSameResultsAsInProcessValidation(String constraint,
+                                                                 String data) {
+        final String shapes = "ex:S a sh:NodeShape ; sh:targetClass ex:A ; " + constraint + " .";
+        final List<SparqlCheck> checks = compile(shapes, InferenceMode.NONE);
+        Assertions.assertNotNull(checks);
+        dataset.addNamedModel(VC, parse(data));
+        final Resource report = ValidationUtil.validateModel(parse(data), parse(shapes), false);
+
+        final List<String> inProcess = describe(report.listProperties(SH.result).toList()
+            .stream().map(r -> new ResourceValidationResult(r.getResource()))
+            .collect(Collectors.toList()));
+        Assertions.assertFalse(inProcess.isEmpty());
+        Assertions.assertTrue(inProcess.stream().allMatch(r -> r.startsWith("bad ")));
+        Assertions.assertEquals(inProcess, describe(run(checks, Collections.emptyList())));
+    }
+}
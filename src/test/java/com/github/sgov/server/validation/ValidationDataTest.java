@@ -0,0 +1,86 @@
+package com.github.sgov.server.validation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ValidationDataTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("validation-data-test");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    private static Triple triple(int i) {
+        return Triple.create(NodeFactory.createURI("https://example.org/" + i),
+            NodeFactory.createURI("https://example.org/p"),
+            NodeFactory.createURI("https://example.org/o"));
+    }
+
+    @Test
+    void dataBelowThresholdStayInMemory() {
+        try (ValidationData sut = new ValidationData("test", 10, directory)) {
+            sut.add(triple(1));
+            sut.finishLoading();
+            Assertions.assertFalse(sut.isSpilled());
+            Assertions.assertEquals(1, sut.getModel().size());
+        }
+    }
+
+    @Test
+    void dataAboveThresholdAreMovedToDiskAndDeletedOnClose() throws Exception {
+        try (ValidationData sut = new ValidationData("test", 2, directory)) {
+            for (int i = 0; i < 5; i++) {
+                sut.add(triple(i));
+            }
+            sut.finishLoading();
+            Assertions.assertTrue(sut.isSpilled());
+            Assertions.assertEquals(5, sut.getModel().size());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sizeCountsDistinctStatements() {
+        try (ValidationData sut = new ValidationData("test", 10, directory)) {
+            sut.add(triple(1));
+            sut.add(triple(1));
+            sut.add(triple(2));
+            sut.finishLoading();
+            Assertions.assertEquals(2, sut.size());
+        }
+    }
+
+    @Test
+    void duplicateStatementsDoNotExceedThreshold() {
+        try (ValidationData sut = new ValidationData("test", 1, directory)) {
+            sut.add(triple(1));
+            sut.add(triple(1));
+            sut.finishLoading();
+            Assertions.assertFalse(sut.isSpilled());
+        }
+    }
+
+    @Test
+    void discardedDataCannotBeValidated() {
+        final ValidationData sut = new ValidationData("test", 0, directory);
+        sut.discardIfUnused();
+        Assertions.assertThrows(RuntimeException.class, sut::getModel);
+    }
+}
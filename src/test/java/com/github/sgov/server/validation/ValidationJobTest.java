@@ -0,0 +1,69 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class ValidationJobTest {
+
+    private final ValidationJob sut = new ValidationJob("1",
+        URI.create("https://example.org/workspace"), new ValidationOptions());
+
+    private final ValidationReport report =
+        new MergedValidationReport(true, Collections.emptyList());
+
+    @Test
+    void finishStoresReport() {
+        Assertions.assertTrue(sut.start());
+        sut.finish(report);
+        Assertions.assertEquals(ValidationJob.Status.FINISHED, sut.getStatus());
+        Assertions.assertSame(report, sut.getReport());
+        Assertions.assertTrue(sut.isDone());
+    }
+
+    @Test
+    void cancelledJobDoesNotStart() {
+        Assertions.assertTrue(sut.cancel());
+        Assertions.assertFalse(sut.start());
+        Assertions.assertEquals(ValidationJob.Status.CANCELLED, sut.getStatus());
+    }
+
+    @Test
+    void finishAfterCancelKeepsCancelledStatus() {
+        sut.start();
+        sut.cancel();
+        sut.finish(report);
+        Assertions.assertEquals(ValidationJob.Status.CANCELLED, sut.getStatus());
+        Assertions.assertNull(sut.getReport());
+    }
+
+    @Test
+    void cancelOfFinishedJobHasNoEffect() {
+        sut.start();
+        sut.finish(report);
+        Assertions.assertFalse(sut.cancel());
+        Assertions.assertEquals(ValidationJob.Status.FINISHED, sut.getStatus());
+    }
+
+    @Test
+    void setFutureOfCancelledJobCancelsIt() {
+        sut.cancel();
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        sut.setFuture(future);
+        Assertions.assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void listenerEventsTrackProgress() {
+        final URI a = URI.create("https://example.org/a");
+        final URI b = URI.create("https://example.org/b");
+        sut.started(Arrays.asList(a, b));
+        sut.vocabularyValidated(a, report);
+        Assertions.assertEquals(2, sut.getVocabularyContexts().size());
+        Assertions.assertEquals(Collections.singleton(a), sut.getValidatedVocabularyContexts());
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.sgov.server.validation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ValidationMetrics sut = new ValidationMetrics(registry);
+
+    private static ValidationResult result(Resource severity) {
+        final ValidationResult result = Mockito.mock(ValidationResult.class);
+        Mockito.when(result.getSeverity()).thenReturn(severity);
+        return result;
+    }
+
+    @Test
+    void recordVocabularyCountsResultsBySeverity() {
+        sut.recordVocabulary("full", 100, TimeUnit.MILLISECONDS.toNanos(5),
+            new MergedValidationReport(false, Arrays.asList(
+                result(SH.Violation), result(SH.Violation), result(SH.Warning))));
+
+        Assertions.assertEquals(2, registry.get("sgov.validation.results")
+            .tags("profile", "full", "severity", "Violation").counter().count());
+        Assertions.assertEquals(1, registry.get("sgov.validation.results")
+            .tags("profile", "full", "severity", "Warning").counter().count());
+        Assertions.assertEquals(100, registry.get("sgov.validation.vocabulary.statements")
+            .summary().totalAmount());
+    }
+
+    @Test
+    void recordRuleTimesRuleFile() {
+        sut.recordRule("full", "g1.ttl", TimeUnit.MILLISECONDS.toNanos(7));
+
+        Assertions.assertEquals(7, registry.get("sgov.validation.rule")
+            .tags("profile", "full", "rule", "g1.ttl").timer()
+            .totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+}
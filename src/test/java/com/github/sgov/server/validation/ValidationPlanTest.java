@@ -0,0 +1,81 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ValidationPlanTest {
+
+    private static final String NS = "https://example.org/";
+
+    private final Map<URI, URI> vocabularies = new HashMap<>();
+
+    private final Map<URI, Set<String>> imports = new HashMap<>();
+
+    private static URI context(String name) {
+        return URI.create(NS + "context/" + name);
+    }
+
+    private void vocabulary(String name, String... imported) {
+        vocabularies.put(context(name), URI.create(NS + name));
+        final Set<String> i = new HashSet<>();
+        Arrays.stream(imported).forEach(v -> i.add(NS + v));
+        imports.put(context(name), i);
+    }
+
+    @Test
+    void createOrdersVocabulariesByImports() {
+        vocabulary("a", "b");
+        vocabulary("b", "c", "published");
+        vocabulary("c");
+        vocabulary("d");
+
+        final ValidationPlan plan = ValidationPlan.create(vocabularies, imports);
+
+        Assertions.assertEquals(Arrays.asList(
+            Arrays.asList(context("c"), context("d")),
+            List.of(context("b")),
+            List.of(context("a"))), plan.getLevels());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(context("b"), context("c"))),
+            plan.getDependencies(context("a")));
+        Assertions.assertEquals(Collections.singleton(NS + "published"),
+            plan.getPublishedImports(context("a")));
+        Assertions.assertTrue(plan.hasDependents(context("c")));
+        Assertions.assertFalse(plan.hasDependents(context("d")));
+    }
+
+    @Test
+    void isUnusedAfterLastLevelOfDependents() {
+        vocabulary("a", "c");
+        vocabulary("b", "a");
+        vocabulary("c");
+
+        final ValidationPlan plan = ValidationPlan.create(vocabularies, imports);
+
+        Assertions.assertFalse(plan.isUnusedAfter(context("c"), 1));
+        Assertions.assertTrue(plan.isUnusedAfter(context("c"), 2));
+        Assertions.assertTrue(plan.isUnusedAfter(context("b"), 0));
+    }
+
+    @Test
+    void createPutsImportCyclesInLastLevel() {
+        vocabulary("a", "b");
+        vocabulary("b", "a");
+        vocabulary("c");
+
+        final ValidationPlan plan = ValidationPlan.create(vocabularies, imports);
+
+        Assertions.assertEquals(Arrays.asList(
+            List.of(context("c")),
+            Arrays.asList(context("a"), context("b"))), plan.getLevels());
+        Assertions.assertEquals(Collections.singleton(context("b")),
+            plan.getDependencies(context("a")));
+    }
+}
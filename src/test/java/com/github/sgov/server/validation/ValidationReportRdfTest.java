@@ -0,0 +1,90 @@
+package com.github.sgov.server.validation;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ResourceValidationResult;
+import org.topbraid.shacl.validation.ValidationReport;
+import org.topbraid.shacl.validation.ValidationResult;
+import org.topbraid.shacl.vocabulary.SH;
+
+class ValidationReportRdfTest {
+
+    private static final String NS = "https://example.org/";
+
+    private final URI context = URI.create(NS + "context");
+
+    private final String reportGraph = ValidationReportRdf.getReportGraph(context, "full");
+
+    private ValidationReport report() {
+        final Model model = ModelFactory.createDefaultModel();
+        final Resource result = model.createResource()
+            .addProperty(RDF.type, SH.ValidationResult)
+            .addProperty(SH.resultSeverity, SH.Violation)
+            .addProperty(SH.focusNode, model.createResource(NS + "term"))
+            .addProperty(SH.resultMessage, model.createLiteral("Missing label", "en"))
+            .addProperty(SH.resultPath, model.createResource(NS + "label"))
+            .addProperty(SH.sourceShape, model.createResource())
+            .addProperty(SH.sourceConstraintComponent, SH.MinCountConstraintComponent);
+        return new MergedValidationReport(false,
+            Collections.singletonList(new ResourceValidationResult(result)));
+    }
+
+    private Graph store(ValidationReport report) {
+        return ValidationReportRdf.toModel(reportGraph, context, "full", "10/2",
+            Collections.singletonMap(NS + "imported", "5:42"), report).getGraph();
+    }
+
+    @Test
+    void getReportGraphIsSpecificToProfile() {
+        Assertions.assertNotEquals(reportGraph,
+            ValidationReportRdf.getReportGraph(context, "glossary-only"));
+    }
+
+    @Test
+    void toReportReadsStoredResults() {
+        final ValidationReport stored =
+            ValidationReportRdf.toReport(store(report()), reportGraph);
+
+        Assertions.assertFalse(stored.conforms());
+        final List<ValidationResult> results = stored.results();
+        Assertions.assertEquals(1, results.size());
+        final ValidationResult result = results.get(0);
+        Assertions.assertEquals(SH.Violation, result.getSeverity());
+        Assertions.assertEquals(NS + "term", result.getFocusNode().asResource().getURI());
+        Assertions.assertEquals(NS + "label", result.getPath().asResource().getURI());
+        Assertions.assertEquals("Missing label",
+            result.getMessages().iterator().next().asLiteral().getString());
+        Assertions.assertEquals(SH.MinCountConstraintComponent,
+            result.getSourceConstraintComponent());
+    }
+
+    @Test
+    void toModelLeavesOutBlankShapes() {
+        final ValidationReport stored =
+            ValidationReportRdf.toReport(store(report()), reportGraph);
+        Assertions.assertNull(stored.results().get(0).getSourceShape());
+    }
+
+    @Test
+    void getFingerprintReturnsStoredFingerprints() {
+        final Graph graph = store(new MergedValidationReport(true, Collections.emptyList()));
+
+        Assertions.assertEquals("10/2", ValidationReportRdf.getFingerprint(graph, reportGraph));
+        Assertions.assertEquals(Collections.singletonMap(NS + "imported", "5:42"),
+            ValidationReportRdf.getImports(graph, reportGraph));
+    }
+
+    @Test
+    void getFingerprintReturnsNullForEmptyGraph() {
+        Assertions.assertNull(ValidationReportRdf.getFingerprint(
+            ModelFactory.createDefaultModel().getGraph(), reportGraph));
+    }
+}
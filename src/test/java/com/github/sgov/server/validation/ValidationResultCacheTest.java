@@ -0,0 +1,53 @@
+package com.github.sgov.server.validation;
+
+import com.github.sgov.server.config.conf.ValidationConf;
+import java.net.URI;
+import java.util.Collections;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationReport;
+
+class ValidationResultCacheTest {
+
+    private final URI context = URI.create("https://example.org/context");
+
+    private final ValidationReport report =
+        new MergedValidationReport(true, Collections.emptyList());
+
+    private ValidationResultCache sut;
+
+    @BeforeEach
+    void setUp() {
+        final ValidationConf conf = new ValidationConf();
+        conf.setResultCacheSize(1);
+        sut = new ValidationResultCache(conf);
+    }
+
+    @Test
+    void getReturnsReportForSameFingerprint() {
+        sut.put(context, "full", "10/2", report);
+        Assertions.assertSame(report, sut.get(context, "full", "10/2"));
+    }
+
+    @Test
+    void getReturnsNullForChangedFingerprint() {
+        sut.put(context, "full", "10/2", report);
+        Assertions.assertNull(sut.get(context, "full", "10/3"));
+    }
+
+    @Test
+    void getReturnsNullForOtherProfile() {
+        sut.put(context, "full", "10/2", report);
+        Assertions.assertNull(sut.get(context, "glossary-only", "10/2"));
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedReportWhenFull() {
+        final URI other = URI.create("https://example.org/other");
+        sut.put(context, "full", "10/2", report);
+        sut.put(other, "full", "1/1", report);
+        Assertions.assertNull(sut.get(context, "full", "10/2"));
+        Assertions.assertSame(report, sut.get(other, "full", "1/1"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.sgov.server.validation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ValidationTasksTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submitRunsValidationsConcurrently() throws Exception {
+        final ValidationTasks sut = new ValidationTasks(executor, 2, Duration.ofMinutes(1));
+        final CountDownLatch bothRunning = new CountDownLatch(2);
+        final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            results.add(sut.submit(() -> {
+                bothRunning.countDown();
+                return await(bothRunning);
+            }));
+        }
+        sut.await(results);
+        Assertions.assertTrue(results.get(0).join());
+        Assertions.assertTrue(results.get(1).join());
+    }
+
+    @Test
+    void submitRunsAtMostMaxRunningValidations() throws Exception {
+        final ValidationTasks sut = new ValidationTasks(executor, 2, Duration.ofMinutes(1));
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(sut.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                return running.decrementAndGet();
+            }));
+        }
+        sut.await(results);
+        Assertions.assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void awaitThrowsTimeoutExceptionAfterDeadline() throws Exception {
+        final ValidationTasks sut = new ValidationTasks(executor, 1, Duration.ofMillis(100));
+        final CompletableFuture<Boolean> result = sut.submit(() -> await(new CountDownLatch(1)));
+        Assertions.assertThrows(TimeoutException.class, () -> sut.await(List.of(result)));
+        Assertions.assertThrows(TimeoutException.class,
+            () -> sut.submit(() -> true));
+        sut.cancel();
+    }
+
+    @Test
+    void awaitThrowsExceptionOfFailedValidation() throws Exception {
+        final ValidationTasks sut = new ValidationTasks(executor, 1, Duration.ofMinutes(1));
+        final IllegalStateException failure = new IllegalStateException();
+        final CompletableFuture<Boolean> result = sut.submit(() -> {
+            throw failure;
+        });
+        final ExecutionException e =
+            Assertions.assertThrows(ExecutionException.class, () -> sut.await(List.of(result)));
+        Assertions.assertSame(failure, e.getCause());
+    }
+
+    @Test
+    void cancelInterruptsRunningValidationAndFreesItsThread() throws Exception {
+        final ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            final ValidationTasks sut = new ValidationTasks(single, 1, Duration.ofMinutes(1));
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            sut.submit(() -> {
+                started.countDown();
+                if (!await(new CountDownLatch(1))) {
+                    interrupted.countDown();
+                }
+                return false;
+            });
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            sut.cancel();
+            Assertions.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals("free",
+                single.submit(() -> "free").get(10, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the latch, returns false if interrupted.
+     */
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}